@@ -0,0 +1,183 @@
+package com.swarmdemo.gateway.filter;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关访问日志过滤器开销基准
+ * <p>
+ * 对比改造前的逐请求日志过滤器（baseline，同步输出请求、响应两行INFO日志，DEBUG关闭）与
+ * {@link LoggingGlobalFilter} 在默认采样率0.01和全量采样1.0下每个请求的耗时与内存分配，none 为不经过日志过滤器的空链路。
+ * 日志按Spring Boot默认控制台格式编码后写入空输出流，不含真实的控制台或磁盘I/O，baseline的实际开销只会更高。运行方式：
+ * {@code mvn -B -Pjmh test-compile exec:exec}
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingGlobalFilterBenchmark {
+
+    @Param({"none", "baseline", "sampled", "full"})
+    private String filter;
+
+    private final GatewayFilterChain chain = exchange -> {
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        return Mono.empty();
+    };
+
+    private GlobalFilter globalFilter;
+    private AccessLogWriter accessLogWriter;
+    private ServerWebExchange exchange;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        configureLogging();
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users?page=1&size=20")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 50000))
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .header(HttpHeaders.USER_AGENT, "wrk/4.2.0")
+                .build());
+
+        switch (filter) {
+            case "baseline":
+                globalFilter = new BaselineLoggingFilter();
+                break;
+            case "sampled":
+                globalFilter = loggingGlobalFilter(0.01);
+                break;
+            case "full":
+                globalFilter = loggingGlobalFilter(1.0);
+                break;
+            default:
+                globalFilter = (exchange, chain) -> chain.filter(exchange);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (accessLogWriter != null) {
+            accessLogWriter.destroy();
+        }
+    }
+
+    @Benchmark
+    public void filter() {
+        globalFilter.filter(exchange, chain).block();
+    }
+
+    private GlobalFilter loggingGlobalFilter(double sampleRate) {
+        accessLogWriter = new AccessLogWriter();
+        ReflectionTestUtils.setField(accessLogWriter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(accessLogWriter, "bufferSize", 8192);
+        accessLogWriter.init();
+
+        LoggingGlobalFilter loggingFilter = new LoggingGlobalFilter();
+        ReflectionTestUtils.setField(loggingFilter, "accessLogWriter", accessLogWriter);
+        ReflectionTestUtils.setField(loggingFilter, "enabled", true);
+        ReflectionTestUtils.setField(loggingFilter, "sampleRate", sampleRate);
+        ReflectionTestUtils.setField(loggingFilter, "alwaysLogErrors", true);
+        ReflectionTestUtils.setField(loggingFilter, "includeHeaders", false);
+        return loggingFilter;
+    }
+
+    /**
+     * 与服务运行时一样输出INFO级别，日志按Spring Boot默认控制台格式编码后丢弃
+     */
+    private static void configureLogging() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5p 1 --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        ch.qos.logback.classic.Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(appender);
+    }
+
+    /**
+     * 改造前的全局日志过滤器
+     */
+    static class BaselineLoggingFilter implements GlobalFilter {
+
+        private static final Logger logger = LoggerFactory.getLogger(BaselineLoggingFilter.class);
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            ServerHttpRequest request = exchange.getRequest();
+
+            logger.info("Gateway Request: {} {} from {}",
+                    request.getMethod(),
+                    request.getURI(),
+                    request.getRemoteAddress());
+
+            request.getHeaders().forEach((name, values) -> {
+                if (name.toLowerCase().contains("authorization") ||
+                    name.toLowerCase().contains("cookie")) {
+                    logger.debug("Request Header: {}=[PROTECTED]", name);
+                } else {
+                    logger.debug("Request Header: {}={}", name, values);
+                }
+            });
+
+            long startTime = System.currentTimeMillis();
+
+            return chain.filter(exchange).then(
+                    Mono.fromRunnable(() -> {
+                        long endTime = System.currentTimeMillis();
+                        logger.info("Gateway Response: {} {} - Status: {} - Duration: {}ms",
+                                request.getMethod(),
+                                request.getURI(),
+                                exchange.getResponse().getStatusCode(),
+                                endTime - startTime);
+                    })
+            );
+        }
+    }
+}
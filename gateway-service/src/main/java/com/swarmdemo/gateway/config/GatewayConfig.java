@@ -1,5 +1,7 @@
 package com.swarmdemo.gateway.config;
 
+import com.swarmdemo.gateway.filter.RateLimiterGatewayFilterFactory;
+import com.swarmdemo.gateway.filter.ResponseCacheGatewayFilterFactory;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
@@ -8,8 +10,13 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
+
 /**
  * Gateway配置类
+ * <p>
+ * 网关响应缓存只按有效期过期，用户或订单的写操作不会使其失效：单个用户信息最多陈旧30秒，
+ * 订单统计和热门商品最多陈旧10秒（上游 {@code Cache-Control: max-age} 更短时以上游为准）。
  * 
  * @author islanderrrrr
  * @since 2025-08-25
@@ -18,18 +25,38 @@ import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 public class GatewayConfig {
 
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder,
+                                           ResponseCacheGatewayFilterFactory responseCache,
+                                           RateLimiterGatewayFilterFactory rateLimiter) {
         return builder.routes()
-                // 用户服务路由
+                // 用户服务路由，按已知API Key（缺失或未知时按客户端IP）限流，单个用户信息在网关缓存30秒，期间更新不可见
                 .route("user-service", r -> r.path("/api/users/**")
                         .filters(f -> f.stripPrefix(1)
+                                .filter(rateLimiter.apply(config -> config.setName("user-service")
+                                        .setKeyType(RateLimiterGatewayFilterFactory.KeyType.API_KEY)
+                                        .setReplenishRate(100)
+                                        .setBurstCapacity(200)))
+                                .filter(responseCache.apply(config -> config.setName("user-service")
+                                        .setPaths("/api/users/{id:\\d+}")
+                                        .setTimeToLive(Duration.ofSeconds(30))
+                                        .setMaximumSize(10000)))
                                 .circuitBreaker(config -> config.setName("user-service-cb")
                                         .setFallbackUri("forward:/fallback/user")))
                         .uri("lb://user-service"))
                 
-                // 订单服务路由
+                // 订单服务路由，按已知API Key（缺失或未知时按客户端IP）限流，统计和热门商品在网关缓存10秒，期间新订单不计入
                 .route("order-service", r -> r.path("/api/orders/**")
                         .filters(f -> f.stripPrefix(1)
+                                .filter(rateLimiter.apply(config -> config.setName("order-service")
+                                        .setKeyType(RateLimiterGatewayFilterFactory.KeyType.API_KEY)
+                                        .setReplenishRate(50)
+                                        .setBurstCapacity(100)))
+                                .filter(responseCache.apply(config -> config.setName("order-service")
+                                        .setPaths("/api/orders/statistics",
+                                                  "/api/orders/user/{userId}/statistics",
+                                                  "/api/orders/popular-products")
+                                        .setTimeToLive(Duration.ofSeconds(10))
+                                        .setMaximumSize(1000)))
                                 .circuitBreaker(config -> config.setName("order-service-cb")
                                         .setFallbackUri("forward:/fallback/order")))
                         .uri("lb://order-service"))
@@ -0,0 +1,93 @@
+package com.swarmdemo.gateway.config;
+
+import com.swarmdemo.gateway.filter.RouteMetricsGlobalFilter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 路由指标的上游实例标签限制
+ * <p>
+ * 同时保留的实例标签取值不超过上限，超出时新实例记为 {@code instance="other"}，路由和状态维度的数据不丢失。
+ * 超过空闲时间没有请求的实例（滚动更新或重新调度后消失的容器）会删除其时间序列并让出名额，
+ * 新调度的副本可以重新获得独立的实例标签。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public class InstanceTagMeterFilter implements MeterFilter, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstanceTagMeterFilter.class);
+
+    public static final String INSTANCE_TAG = "instance";
+    public static final String OTHER_INSTANCE = "other";
+
+    private final int maxInstances;
+    private final long idleTimeoutMillis;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+    private final Disposable expiry;
+
+    public InstanceTagMeterFilter(int maxInstances, Duration idleTimeout, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.maxInstances = maxInstances;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.meterRegistry = meterRegistry;
+        Duration checkInterval = idleTimeout.dividedBy(2);
+        this.expiry = Flux.interval(checkInterval, checkInterval)
+                .onBackpressureDrop()
+                .subscribe(tick -> expireIdleInstances(System.currentTimeMillis()));
+    }
+
+    @Override
+    public Meter.Id map(Meter.Id id) {
+        if (!RouteMetricsGlobalFilter.METRIC_NAME.equals(id.getName())) {
+            return id;
+        }
+        String instance = id.getTag(INSTANCE_TAG);
+        if (instance == null || OTHER_INSTANCE.equals(instance) || RouteMetricsGlobalFilter.NO_INSTANCE.equals(instance)) {
+            return id;
+        }
+        long now = System.currentTimeMillis();
+        if (lastSeen.computeIfPresent(instance, (key, previous) -> now) != null) {
+            return id;
+        }
+        if (lastSeen.size() < maxInstances) {
+            lastSeen.put(instance, now);
+            return id;
+        }
+        return id.withTag(Tag.of(INSTANCE_TAG, OTHER_INSTANCE));
+    }
+
+    /**
+     * 删除空闲实例的时间序列，释放标签名额
+     */
+    void expireIdleInstances(long now) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        lastSeen.forEach((instance, seenAt) -> {
+            if (now - seenAt < idleTimeoutMillis || !lastSeen.remove(instance, seenAt)) {
+                return;
+            }
+            if (registry != null) {
+                registry.find(RouteMetricsGlobalFilter.METRIC_NAME).tag(INSTANCE_TAG, instance).meters()
+                        .forEach(registry::remove);
+            }
+            logger.debug("上游实例 {} 空闲超过 {}ms，已删除其路由指标", instance, idleTimeoutMillis);
+        });
+    }
+
+    @Override
+    public void destroy() {
+        expiry.dispose();
+    }
+}
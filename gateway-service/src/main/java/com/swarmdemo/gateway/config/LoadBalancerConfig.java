@@ -0,0 +1,16 @@
+package com.swarmdemo.gateway.config;
+
+import com.swarmdemo.gateway.loadbalancer.PeakEwmaLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 负载均衡配置，所有 lb:// 服务默认使用基于延迟的负载均衡器替代轮询
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,29 @@
+package com.swarmdemo.gateway.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 网关指标配置
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 限制路由指标中同时存在的上游实例标签个数，超出部分记为 other，空闲实例的时间序列定期删除
+     */
+    @Bean
+    public InstanceTagMeterFilter routeInstanceTagLimit(@Value("${gateway.metrics.max-instances:100}") int maxInstances,
+                                                        @Value("${gateway.metrics.instance-idle-timeout:10m}") Duration idleTimeout,
+                                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        return new InstanceTagMeterFilter(maxInstances, idleTimeout, meterRegistry);
+    }
+}
@@ -0,0 +1,74 @@
+package com.swarmdemo.gateway.filter;
+
+import java.util.List;
+
+/**
+ * 访问日志记录
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public class AccessLogEntry {
+
+    private final long timestamp;
+    private final String method;
+    private final String path;
+    private final String query;
+    private final int status;
+    private final long durationNanos;
+    private final String routeId;
+    private final String clientAddress;
+    private final List<String[]> headers;
+
+    public AccessLogEntry(long timestamp, String method, String path, String query, int status,
+                          long durationNanos, String routeId, String clientAddress, List<String[]> headers) {
+        this.timestamp = timestamp;
+        this.method = method;
+        this.path = path;
+        this.query = query;
+        this.status = status;
+        this.durationNanos = durationNanos;
+        this.routeId = routeId;
+        this.clientAddress = clientAddress;
+        this.headers = headers;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    public String getClientAddress() {
+        return clientAddress;
+    }
+
+    /**
+     * 请求头（名称、值），未开启请求头记录时为 null
+     */
+    public List<String[]> getHeaders() {
+        return headers;
+    }
+}
@@ -0,0 +1,141 @@
+package com.swarmdemo.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步访问日志写出器
+ * <p>
+ * 请求线程只把访问记录放入固定容量的环形队列，队列满时直接丢弃并计数，不阻塞网关的事件循环线程。
+ * 单个后台线程批量取出记录，序列化为单行JSON后写入 {@code gateway.access} 日志。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+public class AccessLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogWriter.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger("gateway.access");
+
+    private static final int DRAIN_BATCH_SIZE = 256;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gateway.access-log.buffer-size:8192}")
+    private int bufferSize;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private BlockingQueue<AccessLogEntry> buffer;
+    private Thread writerThread;
+    private volatile boolean running = true;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    public void init() {
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        droppedCounter = Counter.builder("gateway.access-log.dropped")
+                .description("Access log entries dropped because the buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("gateway.access-log.buffer.size", buffer, BlockingQueue::size)
+                .description("Access log entries waiting to be written")
+                .register(meterRegistry);
+
+        writerThread = new Thread(this::drain, "access-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * 提交一条访问记录，缓冲区已满时丢弃
+     */
+    public void submit(AccessLogEntry entry) {
+        if (!buffer.offer(entry)) {
+            droppedCounter.increment();
+        }
+    }
+
+    private void drain() {
+        List<AccessLogEntry> batch = new ArrayList<>(DRAIN_BATCH_SIZE);
+        StringWriter writer = new StringWriter(512);
+        while (running || !buffer.isEmpty()) {
+            try {
+                AccessLogEntry first = buffer.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, DRAIN_BATCH_SIZE - 1);
+            } catch (InterruptedException e) {
+                buffer.drainTo(batch);
+            }
+
+            for (AccessLogEntry entry : batch) {
+                writer.getBuffer().setLength(0);
+                try {
+                    write(entry, writer);
+                    accessLogger.info(writer.toString());
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("写出访问日志失败: {}", e.getMessage());
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(AccessLogEntry entry, StringWriter writer) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeStringField("timestamp", Instant.ofEpochMilli(entry.getTimestamp()).toString());
+            generator.writeStringField("method", entry.getMethod());
+            generator.writeStringField("path", entry.getPath());
+            if (entry.getQuery() != null) {
+                generator.writeStringField("query", entry.getQuery());
+            }
+            generator.writeNumberField("status", entry.getStatus());
+            generator.writeNumberField("durationMs", entry.getDurationNanos() / 1_000_000.0);
+            if (entry.getRouteId() != null) {
+                generator.writeStringField("route", entry.getRouteId());
+            }
+            if (entry.getClientAddress() != null) {
+                generator.writeStringField("client", entry.getClientAddress());
+            }
+            if (entry.getHeaders() != null) {
+                generator.writeObjectFieldStart("headers");
+                for (String[] header : entry.getHeaders()) {
+                    generator.writeStringField(header[0], header[1]);
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+    }
+}
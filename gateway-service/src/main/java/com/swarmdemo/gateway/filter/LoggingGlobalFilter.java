@@ -1,62 +1,124 @@
 package com.swarmdemo.gateway.filter;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
- * 全局日志过滤器
- * 
+ * 全局访问日志过滤器
+ * <p>
+ * 按采样率记录访问日志，5xx响应始终记录。请求线程只记录开始时间（日志时间戳为请求开始时间），完成后组装一条记录交给
+ * {@link AccessLogWriter} 异步写出；未被采样的请求不产生任何日志对象。
+ *
  * @author islanderrrrr
  * @since 2025-08-25
  */
 @Component
 public class LoggingGlobalFilter implements GlobalFilter, Ordered {
 
-    private static final Logger logger = LoggerFactory.getLogger(LoggingGlobalFilter.class);
+    /**
+     * 记录请求头时需要脱敏的请求头，按名称忽略大小写匹配
+     */
+    private static final Set<String> SENSITIVE_HEADERS = sensitiveHeaders(
+            HttpHeaders.AUTHORIZATION,
+            HttpHeaders.PROXY_AUTHORIZATION,
+            HttpHeaders.COOKIE,
+            HttpHeaders.SET_COOKIE,
+            "X-API-Key",
+            "X-Auth-Token");
+
+    private static final String PROTECTED = "[PROTECTED]";
+
+    @Autowired
+    private AccessLogWriter accessLogWriter;
+
+    @Value("${gateway.access-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.access-log.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${gateway.access-log.always-log-errors:true}")
+    private boolean alwaysLogErrors;
+
+    @Value("${gateway.access-log.include-headers:false}")
+    private boolean includeHeaders;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        long timestamp = System.currentTimeMillis();
+        long startTime = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> log(exchange, timestamp, System.nanoTime() - startTime));
+    }
+
+    private void log(ServerWebExchange exchange, long timestamp, long durationNanos) {
+        HttpStatus status = exchange.getResponse().getStatusCode();
+        int statusCode = status != null ? status.value() : 0;
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (!sampled && !(alwaysLogErrors && statusCode >= 500)) {
+            return;
+        }
+
         ServerHttpRequest request = exchange.getRequest();
-        
-        // 记录请求信息
-        logger.info("Gateway Request: {} {} from {}",
-                request.getMethod(),
-                request.getURI(),
-                request.getRemoteAddress());
-
-        // 记录请求头信息
-        request.getHeaders().forEach((name, values) -> {
-            if (name.toLowerCase().contains("authorization") || 
-                name.toLowerCase().contains("cookie")) {
-                logger.debug("Request Header: {}=[PROTECTED]", name);
-            } else {
-                logger.debug("Request Header: {}={}", name, values);
-            }
-        });
-
-        long startTime = System.currentTimeMillis();
-
-        return chain.filter(exchange).then(
-                Mono.fromRunnable(() -> {
-                    long endTime = System.currentTimeMillis();
-                    logger.info("Gateway Response: {} {} - Status: {} - Duration: {}ms",
-                            request.getMethod(),
-                            request.getURI(),
-                            exchange.getResponse().getStatusCode(),
-                            endTime - startTime);
-                })
-        );
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+
+        accessLogWriter.submit(new AccessLogEntry(
+                timestamp,
+                request.getMethodValue(),
+                request.getPath().value(),
+                request.getURI().getRawQuery(),
+                statusCode,
+                durationNanos,
+                route != null ? route.getId() : null,
+                remoteAddress != null && remoteAddress.getAddress() != null
+                        ? remoteAddress.getAddress().getHostAddress() : null,
+                includeHeaders ? headers(request.getHeaders()) : null));
+    }
+
+    private List<String[]> headers(HttpHeaders headers) {
+        List<String[]> result = new ArrayList<>(headers.size());
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            String name = header.getKey();
+            String value = SENSITIVE_HEADERS.contains(name) ? PROTECTED : String.join(",", header.getValue());
+            result.add(new String[]{name, value});
+        }
+        return result;
+    }
+
+    private static Set<String> sensitiveHeaders(String... names) {
+        Set<String> headers = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        headers.addAll(Arrays.asList(names));
+        return Collections.unmodifiableSet(headers);
     }
 
     @Override
     public int getOrder() {
         return -1;
     }
-}
\ No newline at end of file
+}
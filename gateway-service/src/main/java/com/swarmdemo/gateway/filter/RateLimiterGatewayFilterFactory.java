@@ -0,0 +1,494 @@
+package com.swarmdemo.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 令牌桶限流过滤器工厂
+ * <p>
+ * 请求路径上只访问本实例内存中的令牌桶（GCRA算法，单个 {@link AtomicLong} 的CAS更新，无锁），不访问Redis。
+ * 后台按固定间隔把各限流键在本实例放行的请求数累加到Redis的时间窗口计数器，
+ * 全部网关实例在当前窗口内的放行总数超过全局上限时，本实例在窗口结束前拒绝该键的请求。
+ * Redis不可用时仍按本地令牌桶限流。
+ * <p>
+ * 限流键只使用客户端无法伪造的信息：API Key必须在已知列表中，否则按来源地址限流；
+ * 只有直接来源是受信任代理时才采用 X-Forwarded-For 中最右侧的非受信任地址。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+public class RateLimiterGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RateLimiterGatewayFilterFactory.Config> implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiterGatewayFilterFactory.class);
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private static final String REDIS_KEY_PREFIX = "gateway:ratelimit:";
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private static final Pattern IPV4_LITERAL = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+    @Autowired
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Disposable> synchronizers = new CopyOnWriteArrayList<>();
+
+    private volatile Set<String> knownApiKeys = Collections.emptySet();
+
+    private volatile List<AddressRange> trustedProxies = Collections.emptyList();
+
+    public RateLimiterGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    /**
+     * 已知的API Key，逗号分隔；不在列表中的Key按来源地址限流
+     */
+    @Value("${gateway.rate-limit.api-keys:}")
+    public void setKnownApiKeys(String apiKeys) {
+        this.knownApiKeys = new HashSet<>(Arrays.asList(StringUtils.tokenizeToStringArray(apiKeys, ",")));
+    }
+
+    /**
+     * 受信任代理的地址或CIDR网段，逗号分隔；只有来自这些地址的请求才解析 X-Forwarded-For
+     */
+    @Value("${gateway.rate-limit.trusted-proxies:}")
+    public void setTrustedProxies(String proxies) {
+        List<AddressRange> ranges = new ArrayList<>();
+        for (String proxy : StringUtils.tokenizeToStringArray(proxies, ",")) {
+            ranges.add(AddressRange.parse(proxy));
+        }
+        this.trustedProxies = ranges;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        RateLimiter rateLimiter = new RateLimiter(config);
+        synchronizers.add(Flux.interval(config.getSyncInterval(), config.getSyncInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> rateLimiter.synchronize(), 1)
+                .subscribe());
+        return new OrderedGatewayFilter(rateLimiter::filter, ResponseCacheGatewayFilterFactory.FILTER_ORDER - 1);
+    }
+
+    @Override
+    public void destroy() {
+        synchronizers.forEach(Disposable::dispose);
+    }
+
+    /**
+     * 限流键的类型
+     */
+    public enum KeyType {
+        /**
+         * 客户端IP：来源地址，来源是受信任代理时取 X-Forwarded-For 中最右侧的非受信任地址
+         */
+        IP,
+        /**
+         * 请求头 X-API-Key，缺失或不在已知列表中时退化为客户端IP
+         */
+        API_KEY,
+        /**
+         * 路由ID，整条路由共享一个令牌桶
+         */
+        ROUTE
+    }
+
+    /**
+     * 单个路由的限流器
+     */
+    private class RateLimiter {
+
+        private final Config config;
+        private final Cache<String, TokenBucket> buckets;
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        private final long windowMillis;
+        private final long globalLimitPerWindow;
+        private final Counter localRejectedCounter;
+        private final Counter globalRejectedCounter;
+        private final Counter syncFailureCounter;
+
+        RateLimiter(Config config) {
+            this.config = config;
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(config.getMaximumKeys())
+                    .expireAfterAccess(config.getWindow().multipliedBy(10))
+                    .build();
+            this.emissionIntervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getReplenishRate();
+            this.burstToleranceNanos = emissionIntervalNanos * (config.getBurstCapacity() - 1);
+            this.windowMillis = config.getWindow().toMillis();
+            this.globalLimitPerWindow = config.getReplenishRate() * config.getWindow().getSeconds()
+                    + config.getBurstCapacity();
+            this.localRejectedCounter = rejectedCounter("local");
+            this.globalRejectedCounter = rejectedCounter("global");
+            this.syncFailureCounter = Counter.builder("gateway.ratelimit.sync.failures")
+                    .description("Failed rate limiter synchronizations with Redis")
+                    .tag("limiter", config.getName())
+                    .register(meterRegistry);
+        }
+
+        Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            String key = resolveKey(exchange);
+            TokenBucket bucket = buckets.get(key, k -> new TokenBucket());
+
+            long now = System.nanoTime();
+            if (bucket.blockedUntil > System.currentTimeMillis()) {
+                globalRejectedCounter.increment();
+                return reject(exchange, Math.max(1, (bucket.blockedUntil - System.currentTimeMillis()) / 1000));
+            }
+            long retryAfterNanos = bucket.tryAcquire(now, emissionIntervalNanos, burstToleranceNanos);
+            if (retryAfterNanos > 0) {
+                localRejectedCounter.increment();
+                return reject(exchange, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos)));
+            }
+            return chain.filter(exchange);
+        }
+
+        /**
+         * 把上次同步后本实例放行的请求数累加到Redis，并根据全局计数更新各键的拒绝期限
+         */
+        Mono<Void> synchronize() {
+            long window = System.currentTimeMillis() / windowMillis;
+            long windowEnd = (window + 1) * windowMillis;
+            Duration keyTimeToLive = config.getWindow().multipliedBy(2);
+
+            return Flux.fromIterable(buckets.asMap().entrySet())
+                    .filter(entry -> entry.getValue().unsynced.get() > 0)
+                    .flatMap(entry -> {
+                        TokenBucket bucket = entry.getValue();
+                        long delta = bucket.unsynced.getAndSet(0);
+                        String redisKey = REDIS_KEY_PREFIX + config.getName() + ":" + entry.getKey() + ":" + window;
+                        return redisTemplate.opsForValue().increment(redisKey, delta)
+                                .flatMap(total -> {
+                                    if (total > globalLimitPerWindow) {
+                                        bucket.blockedUntil = windowEnd;
+                                    }
+                                    return total == delta
+                                            ? redisTemplate.expire(redisKey, keyTimeToLive).then()
+                                            : Mono.<Void>empty();
+                                });
+                    }, config.getSyncConcurrency())
+                    .then()
+                    .onErrorResume(e -> {
+                        syncFailureCounter.increment();
+                        logger.warn("限流计数同步失败，限流器: {}, 异常: {}", config.getName(), e.getMessage());
+                        return Mono.empty();
+                    });
+        }
+
+        private String resolveKey(ServerWebExchange exchange) {
+            switch (config.getKeyType()) {
+                case ROUTE:
+                    Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                    return route != null ? route.getId() : config.getName();
+                case API_KEY:
+                    String apiKey = exchange.getRequest().getHeaders().getFirst(API_KEY_HEADER);
+                    if (StringUtils.hasText(apiKey) && knownApiKeys.contains(apiKey)) {
+                        return "key:" + apiKey;
+                    }
+                    return clientIp(exchange.getRequest());
+                case IP:
+                default:
+                    return clientIp(exchange.getRequest());
+            }
+        }
+
+        private Mono<Void> reject(ServerWebExchange exchange, long retryAfterSeconds) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return response.setComplete();
+        }
+
+        private Counter rejectedCounter(String reason) {
+            return Counter.builder("gateway.ratelimit.rejected")
+                    .description("Requests rejected by the gateway rate limiter")
+                    .tag("limiter", config.getName())
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+
+    private String clientIp(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return "ip:unknown";
+        }
+        InetAddress remote = remoteAddress.getAddress();
+        String forwardedFor = request.getHeaders().getFirst(FORWARDED_FOR_HEADER);
+        if (!isTrustedProxy(remote) || !StringUtils.hasText(forwardedFor)) {
+            return "ip:" + remote.getHostAddress();
+        }
+        // 从右向左跳过受信任代理追加的地址，第一个非受信任地址即代理看到的客户端；更左侧的内容可由客户端伪造
+        String[] hops = StringUtils.tokenizeToStringArray(forwardedFor, ",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            InetAddress hop = parseLiteral(hops[i]);
+            if (hop == null || !isTrustedProxy(hop)) {
+                return "ip:" + hops[i];
+            }
+        }
+        return "ip:" + (hops.length > 0 ? hops[0] : remote.getHostAddress());
+    }
+
+    private boolean isTrustedProxy(InetAddress address) {
+        for (AddressRange range : trustedProxies) {
+            if (range.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 只解析IP字面量，避免对请求头中的任意字符串做DNS查询
+     */
+    private static InetAddress parseLiteral(String value) {
+        if (!IPV4_LITERAL.matcher(value).matches() && value.indexOf(':') < 0) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(value);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 地址或CIDR网段
+     */
+    private static final class AddressRange {
+
+        private final byte[] network;
+        private final int prefixLength;
+
+        private AddressRange(byte[] network, int prefixLength) {
+            this.network = network;
+            this.prefixLength = prefixLength;
+        }
+
+        static AddressRange parse(String value) {
+            int slash = value.indexOf('/');
+            String address = slash < 0 ? value : value.substring(0, slash);
+            InetAddress literal = parseLiteral(address);
+            if (literal == null) {
+                throw new IllegalArgumentException("受信任代理必须是IP地址或CIDR网段: " + value);
+            }
+            byte[] network = literal.getAddress();
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(value.substring(slash + 1));
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("CIDR前缀长度无效: " + value);
+            }
+            return new AddressRange(network, prefixLength);
+        }
+
+        boolean contains(InetAddress address) {
+            byte[] candidate = address.getAddress();
+            if (candidate.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (candidate[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (candidate[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+
+    /**
+     * 单个限流键的令牌桶
+     * <p>
+     * 以GCRA形式实现：只保存理论到达时间（TAT），每放行一个请求TAT推后一个发放间隔，
+     * TAT超出当前时间的部分不超过突发容量对应的时长即可放行。
+     */
+    private static final class TokenBucket {
+
+        private final AtomicLong theoreticalArrivalTime = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong unsynced = new AtomicLong();
+        private volatile long blockedUntil;
+
+        /**
+         * 尝试获取一个令牌，成功返回0，失败返回需要等待的纳秒数
+         */
+        long tryAcquire(long now, long emissionInterval, long burstTolerance) {
+            while (true) {
+                long tat = theoreticalArrivalTime.get();
+                long base = tat == Long.MIN_VALUE || tat - now < 0 ? now : tat;
+                long waitNanos = base - burstTolerance - now;
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+                if (theoreticalArrivalTime.compareAndSet(tat, base + emissionInterval)) {
+                    unsynced.incrementAndGet();
+                    return 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * 路由级限流配置
+     */
+    public static class Config {
+
+        /**
+         * 限流器名称，用于Redis键和指标标签
+         */
+        private String name = "default";
+
+        private KeyType keyType = KeyType.IP;
+
+        /**
+         * 每秒发放的令牌数，同时作为全部网关实例合计的每秒上限
+         */
+        private long replenishRate = 100;
+
+        /**
+         * 令牌桶容量，允许的突发请求数
+         */
+        private long burstCapacity = 200;
+
+        /**
+         * 全局计数的时间窗口
+         */
+        private Duration window = Duration.ofSeconds(1);
+
+        /**
+         * 与Redis同步的间隔
+         */
+        private Duration syncInterval = Duration.ofMillis(200);
+
+        /**
+         * 同步时并发的Redis请求数
+         */
+        private int syncConcurrency = 32;
+
+        /**
+         * 本地保留的限流键数量上限
+         */
+        private long maximumKeys = 100000;
+
+        public String getName() {
+            return name;
+        }
+
+        public Config setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public KeyType getKeyType() {
+            return keyType;
+        }
+
+        public Config setKeyType(KeyType keyType) {
+            this.keyType = keyType;
+            return this;
+        }
+
+        public long getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(long replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public long getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(long burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public Config setWindow(Duration window) {
+            this.window = window;
+            return this;
+        }
+
+        public Duration getSyncInterval() {
+            return syncInterval;
+        }
+
+        public Config setSyncInterval(Duration syncInterval) {
+            this.syncInterval = syncInterval;
+            return this;
+        }
+
+        public int getSyncConcurrency() {
+            return syncConcurrency;
+        }
+
+        public Config setSyncConcurrency(int syncConcurrency) {
+            this.syncConcurrency = syncConcurrency;
+            return this;
+        }
+
+        public long getMaximumKeys() {
+            return maximumKeys;
+        }
+
+        public Config setMaximumKeys(long maximumKeys) {
+            this.maximumKeys = maximumKeys;
+            return this;
+        }
+    }
+}
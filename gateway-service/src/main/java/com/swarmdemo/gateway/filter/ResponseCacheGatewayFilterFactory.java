@@ -0,0 +1,441 @@
+package com.swarmdemo.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 响应缓存过滤器工厂
+ * <p>
+ * 按路由在内存中缓存GET请求的200响应，键为路径+查询参数，条目数有上限。
+ * 遵循上游的 {@code Cache-Control}（no-store/private/no-cache 不缓存，max-age/s-maxage 决定有效期），
+ * 为缓存的响应生成 {@code ETag} 并对匹配的 {@code If-None-Match} 返回 304。
+ * 同一键的并发未命中只有一个请求访问上游，其余请求等待其结果。
+ * 缓存只在本实例内存中，写请求不会使其失效，条目在有效期内可能是旧数据，路由需按可接受的陈旧时间设置有效期。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheGatewayFilterFactory.class);
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    /**
+     * 必须在 {@link NettyWriteResponseFilter} 之前执行，否则响应装饰器不会被用于写出响应体
+     */
+    public static final int FILTER_ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)=(\\d+)");
+
+    private static final List<String> CACHED_HEADERS = Arrays.asList(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LANGUAGE,
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.EXPIRES);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public ResponseCacheGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        ResponseCache responseCache = new ResponseCache(config);
+        return new OrderedGatewayFilter(responseCache::filter, FILTER_ORDER);
+    }
+
+    /**
+     * 单个路由的响应缓存
+     */
+    private class ResponseCache {
+
+        private final Config config;
+        private final List<PathPattern> pathPatterns;
+        private final Cache<String, CachedResponse> cache;
+        private final Map<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+        ResponseCache(Config config) {
+            this.config = config;
+            this.pathPatterns = config.getPaths().stream()
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .collect(Collectors.toList());
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(config.getMaximumSize())
+                    .expireAfter(new Expiry<String, CachedResponse>() {
+                        @Override
+                        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                            return value.timeToLive.toNanos();
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(String key, CachedResponse value, long currentTime,
+                                                      long currentDuration) {
+                            return value.timeToLive.toNanos();
+                        }
+
+                        @Override
+                        public long expireAfterRead(String key, CachedResponse value, long currentTime,
+                                                    long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .build();
+            meterRegistry.gaugeMapSize("gateway.response.cache.size",
+                    Tags.of("cache", config.getName()), cache.asMap());
+        }
+
+        Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET || !matches(request)) {
+                return chain.filter(exchange);
+            }
+
+            String key = cacheKey(request);
+            if (!bypassesCache(request)) {
+                CachedResponse cached = cache.getIfPresent(key);
+                if (cached != null) {
+                    record("hit");
+                    return writeCached(exchange, cached, "HIT");
+                }
+            }
+
+            CompletableFuture<CachedResponse> created = new CompletableFuture<>();
+            CompletableFuture<CachedResponse> existing = inFlight.putIfAbsent(key, created);
+            if (existing != null) {
+                record("collapsed");
+                return Mono.fromFuture(existing.copy())
+                        .timeout(config.getCollapseTimeout())
+                        .onErrorResume(e -> Mono.empty())
+                        .flatMap(cached -> writeCached(exchange, cached, "HIT").thenReturn(Boolean.TRUE))
+                        .switchIfEmpty(Mono.defer(() -> chain.filter(exchange).thenReturn(Boolean.TRUE)))
+                        .then();
+            }
+
+            record("miss");
+            ServerHttpResponse response = new CachingResponseDecorator(exchange, key, created);
+            return chain.filter(exchange.mutate().response(response).build())
+                    .doFinally(signal -> {
+                        inFlight.remove(key, created);
+                        created.complete(null);
+                    });
+        }
+
+        private boolean matches(ServerHttpRequest request) {
+            if (pathPatterns.isEmpty()) {
+                return true;
+            }
+            PathContainer path = request.getPath().pathWithinApplication();
+            for (PathPattern pattern : pathPatterns) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void store(String key, CachedResponse response) {
+            cache.put(key, response);
+            logger.debug("缓存网关响应: {}, 有效期: {}", key, response.timeToLive);
+        }
+
+        private void record(String result) {
+            meterRegistry.counter("gateway.response.cache.requests",
+                    "cache", config.getName(), "result", result).increment();
+        }
+
+        /**
+         * 捕获上游响应体，可缓存时写入缓存并完成等待中的请求
+         */
+        private class CachingResponseDecorator extends ServerHttpResponseDecorator {
+
+            private final ServerWebExchange exchange;
+            private final String key;
+            private final CompletableFuture<CachedResponse> result;
+
+            CachingResponseDecorator(ServerWebExchange exchange, String key,
+                                     CompletableFuture<CachedResponse> result) {
+                super(exchange.getResponse());
+                this.exchange = exchange;
+                this.key = key;
+                this.result = result;
+            }
+
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                Duration timeToLive = cacheableFor(getDelegate());
+                if (timeToLive == null) {
+                    return super.writeWith(body);
+                }
+
+                return DataBufferUtils.join(Flux.from(body))
+                        .flatMap(buffer -> {
+                            byte[] bytes = new byte[buffer.readableByteCount()];
+                            buffer.read(bytes);
+                            DataBufferUtils.release(buffer);
+                            if (bytes.length > config.getMaximumBodySize()) {
+                                logger.debug("响应体超过缓存上限，不缓存: {}", key);
+                                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                            }
+
+                            CachedResponse cached = CachedResponse.of(getDelegate(), bytes, timeToLive);
+                            store(key, cached);
+                            result.complete(cached);
+
+                            getDelegate().getHeaders().setETag(cached.etag);
+                            getDelegate().getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                            if (notModified(exchange.getRequest(), cached)) {
+                                return writeNotModified(getDelegate());
+                            }
+                            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        });
+            }
+
+            private Duration cacheableFor(ServerHttpResponse response) {
+                if (response.getStatusCode() != HttpStatus.OK) {
+                    return null;
+                }
+                HttpHeaders headers = response.getHeaders();
+                if (headers.containsKey(HttpHeaders.SET_COOKIE) || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                    return null;
+                }
+                long contentLength = headers.getContentLength();
+                if (contentLength > config.getMaximumBodySize()) {
+                    return null;
+                }
+                String cacheControl = headers.getCacheControl();
+                if (cacheControl == null) {
+                    return config.getTimeToLive();
+                }
+                if (cacheControl.contains("no-store") || cacheControl.contains("private")
+                        || cacheControl.contains("no-cache")) {
+                    return null;
+                }
+                Matcher matcher = MAX_AGE.matcher(cacheControl);
+                if (matcher.find()) {
+                    long seconds = Long.parseLong(matcher.group(1));
+                    return seconds > 0 ? Duration.ofSeconds(seconds) : null;
+                }
+                return config.getTimeToLive();
+            }
+        }
+    }
+
+    private static String cacheKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String path = request.getPath().value();
+        return StringUtils.hasText(query) ? path + "?" + query : path;
+    }
+
+    private static boolean bypassesCache(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    private static boolean notModified(ServerHttpRequest request, CachedResponse cached) {
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        for (String etag : ifNoneMatch) {
+            if ("*".equals(etag) || cached.etag.equals(etag) || ("W/" + cached.etag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Mono<Void> writeNotModified(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+        return response.setComplete();
+    }
+
+    private static Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers);
+        headers.setETag(cached.etag);
+        headers.set(HttpHeaders.AGE, String.valueOf(
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - cached.storedAt)));
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+
+        if (notModified(exchange.getRequest(), cached)) {
+            return writeNotModified(response);
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(cached.body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body)));
+    }
+
+    /**
+     * 缓存的响应
+     */
+    private static final class CachedResponse {
+
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final String etag;
+        private final Duration timeToLive;
+        private final long storedAt;
+
+        private CachedResponse(HttpHeaders headers, byte[] body, String etag, Duration timeToLive) {
+            this.headers = headers;
+            this.body = body;
+            this.etag = etag;
+            this.timeToLive = timeToLive;
+            this.storedAt = System.nanoTime();
+        }
+
+        static CachedResponse of(ServerHttpResponse response, byte[] body, Duration timeToLive) {
+            HttpHeaders source = response.getHeaders();
+            HttpHeaders headers = new HttpHeaders();
+            for (String name : CACHED_HEADERS) {
+                List<String> values = source.get(name);
+                if (values != null) {
+                    headers.put(name, new ArrayList<>(values));
+                }
+            }
+            String etag = source.getETag();
+            if (etag == null) {
+                etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            }
+            return new CachedResponse(HttpHeaders.readOnlyHttpHeaders(headers), body, etag, timeToLive);
+        }
+    }
+
+    /**
+     * 路由级缓存配置
+     */
+    public static class Config {
+
+        /**
+         * 缓存名称，用作指标标签
+         */
+        private String name = "default";
+
+        /**
+         * 需要缓存的路径模式，为空时缓存路由下的所有GET请求
+         */
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * 上游未给出 max-age 时的有效期
+         */
+        private Duration timeToLive = Duration.ofSeconds(30);
+
+        /**
+         * 最大条目数
+         */
+        private long maximumSize = 1000;
+
+        /**
+         * 可缓存的最大响应体字节数
+         */
+        private int maximumBodySize = 256 * 1024;
+
+        /**
+         * 合并的并发请求等待首个请求结果的最长时间，超时后自行访问上游
+         */
+        private Duration collapseTimeout = Duration.ofSeconds(5);
+
+        public String getName() {
+            return name;
+        }
+
+        public Config setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public Config setPaths(String... paths) {
+            this.paths = Arrays.asList(paths);
+            return this;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public Config setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+            return this;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public Config setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public int getMaximumBodySize() {
+            return maximumBodySize;
+        }
+
+        public Config setMaximumBodySize(int maximumBodySize) {
+            this.maximumBodySize = maximumBodySize;
+            return this;
+        }
+
+        public Duration getCollapseTimeout() {
+            return collapseTimeout;
+        }
+
+        public Config setCollapseTimeout(Duration collapseTimeout) {
+            this.collapseTimeout = collapseTimeout;
+            return this;
+        }
+    }
+}
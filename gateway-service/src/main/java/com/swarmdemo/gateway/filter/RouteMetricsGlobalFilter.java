@@ -0,0 +1,83 @@
+package com.swarmdemo.gateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 路由级请求指标过滤器
+ * <p>
+ * 按路由ID、状态码类别和上游实例记录请求耗时，指标名 {@code gateway.route.requests}，
+ * 带百分位直方图，可在Prometheus中按路由或实例计算p99。
+ * 标签只取路由ID、状态码类别（2xx/4xx/5xx）和实例的 host:port，不包含请求路径，
+ * 路径变量不会产生新的时间序列。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+public class RouteMetricsGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final String METRIC_NAME = "gateway.route.requests";
+
+    private static final String UNMATCHED_ROUTE = "unmatched";
+    public static final String NO_INSTANCE = "none";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long startTime = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> record(exchange, System.nanoTime() - startTime));
+    }
+
+    private void record(ServerWebExchange exchange, long durationNanos) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Timer.builder(METRIC_NAME)
+                .description("Gateway request latency by route, status class and upstream instance")
+                .tag("route", route != null ? route.getId() : UNMATCHED_ROUTE)
+                .tag("status", statusClass(exchange.getResponse().getStatusCode()))
+                .tag("instance", upstreamInstance(exchange))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String statusClass(HttpStatus status) {
+        if (status == null) {
+            return "UNKNOWN";
+        }
+        return status.series().value() + "xx";
+    }
+
+    /**
+     * 负载均衡后实际请求的上游实例，未转发到上游（如网关本地响应或降级）时为 none
+     */
+    private String upstreamInstance(ServerWebExchange exchange) {
+        URI requestUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (requestUrl == null || requestUrl.getHost() == null || "lb".equals(requestUrl.getScheme())
+                || "forward".equals(requestUrl.getScheme())) {
+            return NO_INSTANCE;
+        }
+        return requestUrl.getPort() > 0 ? requestUrl.getHost() + ":" + requestUrl.getPort() : requestUrl.getHost();
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,90 @@
+package com.swarmdemo.gateway.config;
+
+import com.swarmdemo.gateway.filter.RouteMetricsGlobalFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 上游实例标签限制测试
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+class InstanceTagMeterFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private InstanceTagMeterFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new InstanceTagMeterFilter(2, Duration.ofHours(1),
+                new StaticListableBeanFactory(Collections.singletonMap("registry", registry))
+                        .getBeanProvider(MeterRegistry.class));
+        registry.config().meterFilter(filter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        filter.destroy();
+    }
+
+    @Test
+    void instancesBeyondLimitAreRecordedAsOther() {
+        record("10.0.0.1:8081");
+        record("10.0.0.2:8081");
+        record("10.0.0.3:8081");
+
+        assertThat(count("10.0.0.1:8081")).isEqualTo(1);
+        assertThat(count("10.0.0.2:8081")).isEqualTo(1);
+        assertThat(count("10.0.0.3:8081")).isZero();
+        assertThat(count(InstanceTagMeterFilter.OTHER_INSTANCE)).isEqualTo(1);
+    }
+
+    @Test
+    void idleInstancesReleaseTheirSlot() {
+        record("10.0.0.1:8081");
+        record("10.0.0.2:8081");
+
+        filter.expireIdleInstances(System.currentTimeMillis() + Duration.ofHours(2).toMillis());
+        record("10.0.0.3:8081");
+
+        assertThat(registry.find(RouteMetricsGlobalFilter.METRIC_NAME).tag("instance", "10.0.0.1:8081").meters())
+                .isEmpty();
+        assertThat(count("10.0.0.3:8081")).isEqualTo(1);
+        assertThat(count(InstanceTagMeterFilter.OTHER_INSTANCE)).isZero();
+    }
+
+    @Test
+    void recentlyUsedInstancesAreKept() {
+        record("10.0.0.1:8081");
+
+        filter.expireIdleInstances(System.currentTimeMillis());
+
+        assertThat(count("10.0.0.1:8081")).isEqualTo(1);
+    }
+
+    private void record(String instance) {
+        Timer.builder(RouteMetricsGlobalFilter.METRIC_NAME)
+                .tag("route", "order-service")
+                .tag("status", "2xx")
+                .tag("instance", instance)
+                .register(registry)
+                .record(Duration.ofMillis(5));
+    }
+
+    private long count(String instance) {
+        Timer timer = registry.find(RouteMetricsGlobalFilter.METRIC_NAME).tag("instance", instance).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,117 @@
+package com.swarmdemo.gateway.filter;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 异步访问日志写出器测试：JSON格式与缓冲区满时的丢弃计数
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+class AccessLogWriterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Logger accessLogger = (Logger) LoggerFactory.getLogger("gateway.access");
+    private final BlockingAppender appender = new BlockingAppender();
+    private AccessLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        accessLogger.addAppender(appender);
+
+        writer = new AccessLogWriter();
+        ReflectionTestUtils.setField(writer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(writer, "bufferSize", 2);
+        writer.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        appender.release.countDown();
+        writer.destroy();
+        accessLogger.detachAppender(appender);
+        appender.stop();
+    }
+
+    @Test
+    void writesEntryAsSingleLineJson() throws InterruptedException {
+        appender.release.countDown();
+        writer.submit(new AccessLogEntry(0L, "GET", "/api/users", "page=1", 200, 1_500_000L, "user-service",
+                "10.0.0.1", Collections.singletonList(new String[]{"Authorization", "[PROTECTED]"})));
+
+        assertThat(appender.awaitMessages(1)).isTrue();
+        assertThat(appender.messages.get(0)).isEqualTo("{\"timestamp\":\"1970-01-01T00:00:00Z\","
+                + "\"method\":\"GET\",\"path\":\"/api/users\",\"query\":\"page=1\",\"status\":200,"
+                + "\"durationMs\":1.5,\"route\":\"user-service\",\"client\":\"10.0.0.1\","
+                + "\"headers\":{\"Authorization\":\"[PROTECTED]\"}}");
+    }
+
+    @Test
+    void dropsAndCountsEntriesWhenBufferIsFull() throws InterruptedException {
+        // 写出线程取走第一条后阻塞在日志输出上，此后缓冲区只能容纳2条
+        writer.submit(entry("/1"));
+        assertThat(appender.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.submit(entry("/2"));
+        writer.submit(entry("/3"));
+        writer.submit(entry("/4"));
+        writer.submit(entry("/5"));
+
+        assertThat(meterRegistry.counter("gateway.access-log.dropped").count()).isEqualTo(2);
+        assertThat(meterRegistry.get("gateway.access-log.buffer.size").gauge().value()).isEqualTo(2);
+
+        appender.release.countDown();
+        assertThat(appender.awaitMessages(3)).isTrue();
+        assertThat(appender.messages).hasSize(3);
+        assertThat(appender.messages.get(2)).contains("\"path\":\"/3\"");
+    }
+
+    private static AccessLogEntry entry(String path) {
+        return new AccessLogEntry(System.currentTimeMillis(), "GET", path, null, 200, 1_000_000L, null, null, null);
+    }
+
+    /**
+     * 在放行前阻塞写出线程的日志输出
+     */
+    private static final class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            messages.add(event.getFormattedMessage());
+        }
+
+        private boolean awaitMessages(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (messages.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            return messages.size() >= count;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.swarmdemo.gateway.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 访问日志过滤器测试：采样、5xx始终记录、请求头脱敏、开始时间戳
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+class LoggingGlobalFilterTest {
+
+    private final List<AccessLogEntry> entries = new CopyOnWriteArrayList<>();
+    private LoggingGlobalFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new LoggingGlobalFilter();
+        ReflectionTestUtils.setField(filter, "accessLogWriter", new AccessLogWriter() {
+            @Override
+            public void submit(AccessLogEntry entry) {
+                entries.add(entry);
+            }
+        });
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "sampleRate", 1.0);
+        ReflectionTestUtils.setField(filter, "alwaysLogErrors", true);
+        ReflectionTestUtils.setField(filter, "includeHeaders", false);
+    }
+
+    @Test
+    void logsEveryRequestAtFullSampleRate() {
+        for (int i = 0; i < 100; i++) {
+            run(MockServerHttpRequest.get("/api/users").build(), HttpStatus.OK);
+        }
+
+        assertThat(entries).hasSize(100);
+        assertThat(entries.get(0).getMethod()).isEqualTo("GET");
+        assertThat(entries.get(0).getPath()).isEqualTo("/api/users");
+        assertThat(entries.get(0).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void samplesSuccessfulRequestsAtConfiguredRate() {
+        ReflectionTestUtils.setField(filter, "sampleRate", 0.1);
+        for (int i = 0; i < 2000; i++) {
+            run(MockServerHttpRequest.get("/api/users").build(), HttpStatus.OK);
+        }
+
+        assertThat(entries.size()).isBetween(120, 280);
+    }
+
+    @Test
+    void alwaysLogsServerErrors() {
+        ReflectionTestUtils.setField(filter, "sampleRate", 0.0);
+        run(MockServerHttpRequest.get("/api/users").build(), HttpStatus.OK);
+        run(MockServerHttpRequest.get("/api/users").build(), HttpStatus.NOT_FOUND);
+        run(MockServerHttpRequest.get("/api/orders").build(), HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertThat(entries).hasSize(1);
+        assertThat(entries.get(0).getPath()).isEqualTo("/api/orders");
+        assertThat(entries.get(0).getStatus()).isEqualTo(503);
+    }
+
+    @Test
+    void serverErrorsAreSampledWhenAlwaysLogErrorsIsDisabled() {
+        ReflectionTestUtils.setField(filter, "sampleRate", 0.0);
+        ReflectionTestUtils.setField(filter, "alwaysLogErrors", false);
+        run(MockServerHttpRequest.get("/api/orders").build(), HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertThat(entries).isEmpty();
+    }
+
+    @Test
+    void masksSensitiveHeaders() {
+        ReflectionTestUtils.setField(filter, "includeHeaders", true);
+        run(MockServerHttpRequest.get("/api/users")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer secret")
+                .header("cookie", "SESSION=secret")
+                .header("x-api-key", "secret")
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .build(), HttpStatus.OK);
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String[] header : entries.get(0).getHeaders()) {
+            headers.put(header[0], header[1]);
+        }
+        assertThat(headers)
+                .containsEntry(HttpHeaders.AUTHORIZATION, "[PROTECTED]")
+                .containsEntry("cookie", "[PROTECTED]")
+                .containsEntry("x-api-key", "[PROTECTED]")
+                .containsEntry(HttpHeaders.ACCEPT, "application/json");
+        assertThat(headers.values()).noneMatch(value -> value.contains("secret"));
+    }
+
+    @Test
+    void headersAreOmittedByDefault() {
+        run(MockServerHttpRequest.get("/api/users").header(HttpHeaders.AUTHORIZATION, "Bearer secret").build(),
+                HttpStatus.OK);
+
+        assertThat(entries.get(0).getHeaders()).isNull();
+    }
+
+    @Test
+    void timestampIsTakenAtRequestStart() throws InterruptedException {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users").build());
+        GatewayFilterChain chain = ex -> Mono.delay(Duration.ofMillis(200))
+                .then(Mono.fromRunnable(() -> ex.getResponse().setStatusCode(HttpStatus.OK)));
+        long before = System.currentTimeMillis();
+        filter.filter(exchange, chain).block();
+        // doFinally 在下游收到完成信号之后执行，可能晚于 block() 返回
+        for (int i = 0; i < 100 && entries.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+
+        AccessLogEntry entry = entries.get(0);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(entry.getDurationNanos())).isGreaterThanOrEqualTo(200);
+        assertThat(entry.getTimestamp()).isBetween(before, before + 100);
+    }
+
+    private void run(MockServerHttpRequest request, HttpStatus status) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        GatewayFilterChain chain = ex -> {
+            ex.getResponse().setStatusCode(status);
+            return Mono.empty();
+        };
+        filter.filter(exchange, chain).block();
+    }
+}
@@ -0,0 +1,59 @@
+package com.swarmdemo.order.config;
+
+import java.io.Serializable;
+
+/**
+ * 本地缓存失效广播消息，key为null时表示清空整个缓存
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public class CacheEvictionMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String senderId;
+    private String cacheName;
+    private Object key;
+
+    public CacheEvictionMessage() {}
+
+    public CacheEvictionMessage(String senderId, String cacheName, Object key) {
+        this.senderId = senderId;
+        this.cacheName = cacheName;
+        this.key = key;
+    }
+
+    public String getSenderId() {
+        return senderId;
+    }
+
+    public void setSenderId(String senderId) {
+        this.senderId = senderId;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public void setCacheName(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    public void setKey(Object key) {
+        this.key = key;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheEvictionMessage{" +
+                "senderId='" + senderId + '\'' +
+                ", cacheName='" + cacheName + '\'' +
+                ", key=" + key +
+                '}';
+    }
+}
@@ -0,0 +1,118 @@
+package com.swarmdemo.order.config;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Feign传输层配置
+ * <p>
+ * 通过 {@code feign.transport} 选择Feign使用的HTTP客户端：
+ * <ul>
+ *     <li>{@code default}：Feign默认的 HttpURLConnection</li>
+ *     <li>{@code hc5}：Apache HttpClient 5，带长连接池，按每个目标实例（host:port）限制连接数</li>
+ *     <li>{@code jdk}：JDK HttpClient，可使用HTTP/2在一条连接上多路复用请求</li>
+ * </ul>
+ * 选定的客户端仍由负载均衡客户端包装，{@code lb://} 服务名照常解析为实例地址。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Configuration
+public class FeignTransportConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeignTransportConfig.class);
+
+    @Configuration
+    @ConditionalOnProperty(name = "feign.transport", havingValue = "hc5")
+    static class ApacheHttp5Transport {
+
+        @Value("${feign.hc5.max-connections:200}")
+        private int maxConnections;
+
+        @Value("${feign.hc5.max-connections-per-route:50}")
+        private int maxConnectionsPerRoute;
+
+        @Value("${feign.hc5.connection-time-to-live:5m}")
+        private Duration connectionTimeToLive;
+
+        @Value("${feign.hc5.idle-timeout:30s}")
+        private Duration idleTimeout;
+
+        @Value("${feign.hc5.validate-after-inactivity:2s}")
+        private Duration validateAfterInactivity;
+
+        @Bean(destroyMethod = "close")
+        public CloseableHttpClient feignHttpClient() {
+            PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                    .setMaxConnTotal(maxConnections)
+                    .setMaxConnPerRoute(maxConnectionsPerRoute)
+                    .setConnectionTimeToLive(TimeValue.ofMilliseconds(connectionTimeToLive.toMillis()))
+                    .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivity.toMillis()))
+                    .build();
+
+            logger.info("Feign使用Apache HttpClient 5，连接池总数: {}, 每实例: {}", maxConnections, maxConnectionsPerRoute);
+            return HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(Timeout.ofSeconds(1))
+                            .build())
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout.toMillis()))
+                    .disableCookieManagement()
+                    .disableRedirectHandling()
+                    .build();
+        }
+
+        @Bean
+        public Client feignClient(CloseableHttpClient feignHttpClient, LoadBalancerClient loadBalancerClient,
+                                  LoadBalancerClientFactory loadBalancerClientFactory) {
+            return new FeignBlockingLoadBalancerClient(new ApacheHttp5Client(feignHttpClient),
+                    loadBalancerClient, loadBalancerClientFactory);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "feign.transport", havingValue = "jdk")
+    static class JdkHttpClientTransport {
+
+        @Value("${feign.jdk.http2:true}")
+        private boolean http2;
+
+        @Value("${feign.jdk.connect-timeout:1s}")
+        private Duration connectTimeout;
+
+        @Bean
+        public Client feignClient(LoadBalancerClient loadBalancerClient,
+                                  LoadBalancerClientFactory loadBalancerClientFactory) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(connectTimeout)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .build();
+
+            logger.info("Feign使用JDK HttpClient，协议: {}", httpClient.version());
+            return new FeignBlockingLoadBalancerClient(new Http2Client(httpClient),
+                    loadBalancerClient, loadBalancerClientFactory);
+        }
+    }
+}
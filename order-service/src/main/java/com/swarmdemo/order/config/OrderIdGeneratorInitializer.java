@@ -0,0 +1,51 @@
+package com.swarmdemo.order.config;
+
+import com.swarmdemo.order.entity.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 订单ID生成器初始化
+ * <p>
+ * 订单ID由自增列改为表生成器后，启动时确保号段起点大于已有订单的最大ID，避免主键冲突。
+ * 本实例在Web服务器启动前执行，但多副本部署时其他实例可能正在写入订单，因此可能与订单写入并发：
+ * UPDATE 只在 next_val 小于目标值时将其调大，不会回退其他实例已分配的号段；表生成器在独立事务中以
+ * SELECT ... FOR UPDATE 读取并更新同一行，两者按行锁串行执行。生成器行由迁移脚本 V1 插入，
+ * INSERT 分支只在该行被手工删除时执行。
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class OrderIdGeneratorInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIdGeneratorInitializer.class);
+
+    private static final String GENERATOR_NAME = "orders";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM orders", Long.class);
+        long floor = (maxId != null ? maxId : 0) + 1 + Order.ID_ALLOCATION_SIZE;
+
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM id_generator WHERE name = ?", Integer.class, GENERATOR_NAME);
+        if (rows == null || rows == 0) {
+            jdbcTemplate.update("INSERT INTO id_generator (name, next_val) VALUES (?, ?)", GENERATOR_NAME, floor);
+            logger.info("初始化订单ID生成器，起始值: {}", floor);
+        } else if (jdbcTemplate.update("UPDATE id_generator SET next_val = ? WHERE name = ? AND next_val < ?",
+                floor, GENERATOR_NAME, floor) > 0) {
+            logger.info("调整订单ID生成器起始值: {}", floor);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.swarmdemo.order.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离数据源
+ * <p>
+ * 只读事务中获取的连接轮询分配到复制延迟未超过阈值的只读副本，其余连接以及没有可用副本时都使用主库。
+ * 只读标记在事务开始后才设置，因此必须外包一层 {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}，
+ * 使物理连接推迟到执行第一条语句时再获取。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLag.getSeconds();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Connection connection = replicaConnection();
+            if (connection != null) {
+                return connection;
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * 从下一个可用副本获取连接，获取失败的副本标记为不可用，直到下次延迟检查恢复
+     */
+    private Connection replicaConnection() {
+        int start = next.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.isAvailable(maxLagSeconds)) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                logger.warn("只读副本 {} 获取连接失败，改用其他副本或主库: {}", replica.name, e.getMessage());
+                replica.markDown();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 检查所有副本的复制延迟
+     */
+    public void checkReplicationLag() {
+        for (Replica replica : replicas) {
+            replica.checkLag();
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * 关闭只读副本连接池，主库连接池由Spring管理
+     */
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) replica.dataSource).close();
+            }
+        }
+    }
+
+    /**
+     * 只读副本及其最近一次检查到的复制延迟
+     */
+    public static class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+
+        /**
+         * 复制延迟（秒），复制中断或无法连接时为 -1
+         */
+        private volatile long lagSeconds = -1;
+
+        /**
+         * 是否已提示过账号缺少 REPLICATION CLIENT 权限，只提示一次
+         */
+        private volatile boolean accessDeniedLogged;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getLagSeconds() {
+            return lagSeconds;
+        }
+
+        boolean isAvailable(long maxLagSeconds) {
+            long lag = lagSeconds;
+            return lag >= 0 && lag <= maxLagSeconds;
+        }
+
+        void markDown() {
+            lagSeconds = -1;
+        }
+
+        /**
+         * 读取 Seconds_Behind_Source（MySQL 8.0.22+），旧版本读取 Seconds_Behind_Master。
+         * 两条语句都需要 REPLICATION CLIENT 权限，权限不足时副本始终不可用，读请求全部走主库
+         */
+        void checkLag() {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                long lag = -1;
+                try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                    if (rs.next()) {
+                        lag = toLag(rs.getObject("Seconds_Behind_Source"));
+                    }
+                } catch (SQLException e) {
+                    if (isAccessDenied(e)) {
+                        throw e;
+                    }
+                    try (ResultSet rs = statement.executeQuery("SHOW SLAVE STATUS")) {
+                        if (rs.next()) {
+                            lag = toLag(rs.getObject("Seconds_Behind_Master"));
+                        }
+                    }
+                }
+                if (lag < 0 && lagSeconds >= 0) {
+                    logger.warn("只读副本 {} 复制未运行，读请求改用主库", name);
+                }
+                lagSeconds = lag;
+            } catch (SQLException e) {
+                if (isAccessDenied(e)) {
+                    if (!accessDeniedLogged) {
+                        accessDeniedLogged = true;
+                        logger.warn("只读副本 {} 延迟检查被拒绝，数据库账号缺少 REPLICATION CLIENT 权限，读请求将一直使用主库。" +
+                                "请在副本上执行 GRANT REPLICATION CLIENT ON *.* TO '<账号>'@'%': {}", name, e.getMessage());
+                    }
+                } else if (lagSeconds >= 0) {
+                    logger.warn("只读副本 {} 延迟检查失败，读请求改用主库: {}", name, e.getMessage());
+                }
+                lagSeconds = -1;
+            }
+        }
+
+        private static long toLag(Object value) {
+            return value instanceof Number ? ((Number) value).longValue() : -1;
+        }
+
+        /**
+         * MySQL 1227（ER_SPECIFIC_ACCESS_DENIED_ERROR）：缺少执行该语句所需的权限
+         */
+        private static boolean isAccessDenied(SQLException e) {
+            return e.getErrorCode() == 1227;
+        }
+    }
+}
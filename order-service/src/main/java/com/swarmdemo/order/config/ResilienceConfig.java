@@ -0,0 +1,51 @@
+package com.swarmdemo.order.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 熔断器配置类
+ * <p>
+ * 记录每次熔断器状态转换的日志与指标（order.circuitbreaker.transitions）。
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Configuration
+public class ResilienceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceConfig.class);
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void registerTransitionListeners() {
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(this::recordTransitions);
+        circuitBreakerRegistry.getEventPublisher().onEntryAdded(event -> recordTransitions(event.getAddedEntry()));
+    }
+
+    private void recordTransitions(CircuitBreaker circuitBreaker) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            logger.warn("熔断器状态转换: {} {}", event.getCircuitBreakerName(), event.getStateTransition());
+            Counter.builder("order.circuitbreaker.transitions")
+                    .description("Circuit breaker state transitions")
+                    .tag("name", event.getCircuitBreakerName())
+                    .tag("from", event.getStateTransition().getFromState().name())
+                    .tag("to", event.getStateTransition().getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+        });
+    }
+}
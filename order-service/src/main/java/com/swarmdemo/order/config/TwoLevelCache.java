@@ -0,0 +1,145 @@
+package com.swarmdemo.order.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+/**
+ * 二级缓存：本地Caffeine（L1）优先，未命中时回源Redis（L2）
+ * <p>
+ * 写入、失效和清空操作都会同时作用于两级缓存，并通过回调通知其他实例丢弃各自的本地缓存。
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<Object, Object> localCache;
+    private final org.springframework.cache.Cache redisCache;
+    private final BiConsumer<String, Object> evictionPublisher;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+
+    public TwoLevelCache(String name, Cache<Object, Object> localCache,
+                         org.springframework.cache.Cache redisCache,
+                         BiConsumer<String, Object> evictionPublisher,
+                         MeterRegistry meterRegistry) {
+        super(true);
+        this.name = name;
+        this.localCache = localCache;
+        this.redisCache = redisCache;
+        this.evictionPublisher = evictionPublisher;
+
+        this.localHits = tierCounter(meterRegistry, "local", "hit");
+        this.localMisses = tierCounter(meterRegistry, "local", "miss");
+        this.redisHits = tierCounter(meterRegistry, "redis", "hit");
+        this.redisMisses = tierCounter(meterRegistry, "redis", "miss");
+        tierHitRatio(meterRegistry, "local", localHits, localMisses);
+        tierHitRatio(meterRegistry, "redis", redisHits, redisMisses);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = localCache.getIfPresent(key);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+        localMisses.increment();
+
+        ValueWrapper wrapper = redisCache.get(key);
+        if (wrapper == null) {
+            redisMisses.increment();
+            return null;
+        }
+        redisHits.increment();
+
+        Object storeValue = toStoreValue(wrapper.get());
+        localCache.put(key, storeValue);
+        return storeValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object storeValue = lookup(key);
+        if (storeValue != null) {
+            return (T) fromStoreValue(storeValue);
+        }
+
+        T value = redisCache.get(key, valueLoader);
+        localCache.put(key, toStoreValue(value));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        redisCache.put(key, value);
+        localCache.put(key, toStoreValue(value));
+        evictionPublisher.accept(name, key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        redisCache.evict(key);
+        localCache.invalidate(key);
+        evictionPublisher.accept(name, key);
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        localCache.invalidateAll();
+        evictionPublisher.accept(name, null);
+    }
+
+    /**
+     * 仅失效本地缓存，用于响应其他实例的广播
+     */
+    public void evictLocal(Object key) {
+        if (key == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(key);
+        }
+    }
+
+    private Counter tierCounter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cache.tier.requests")
+                .description("Two-level cache lookups by tier and result")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private void tierHitRatio(MeterRegistry meterRegistry, String tier, Counter hits, Counter misses) {
+        Gauge.builder("cache.tier.hit.ratio", () -> {
+                    double total = hits.count() + misses.count();
+                    return total == 0 ? 0 : hits.count() / total;
+                })
+                .description("Two-level cache hit ratio by tier")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,91 @@
+package com.swarmdemo.order.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 二级缓存管理器
+ * <p>
+ * 为每个缓存组合本地Caffeine缓存与Redis缓存，并通过Redis频道广播失效消息，
+ * 使集群中所有实例及时丢弃过期的本地缓存。
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    private final RedisCacheManager redisCacheManager;
+    private final RedisTemplate<String, Object> messageTemplate;
+    private final TwoLevelCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager,
+                                RedisTemplate<String, Object> messageTemplate,
+                                TwoLevelCacheProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.redisCacheManager = redisCacheManager;
+        this.messageTemplate = messageTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * 处理其他实例广播的失效消息
+     */
+    public void onEvictionMessage(CacheEvictionMessage message) {
+        if (instanceId.equals(message.getSenderId())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(message.getCacheName());
+        if (cache != null) {
+            logger.debug("收到缓存失效广播: {}", message);
+            cache.evictLocal(message.getKey());
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        TwoLevelCacheProperties.Spec spec = properties.getSpec(name);
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(spec.getLocalMaximumSize())
+                .expireAfterWrite(spec.getLocalTimeToLive())
+                .build();
+        return new TwoLevelCache(name, localCache, redisCacheManager.getCache(name),
+                this::publishEviction, meterRegistry);
+    }
+
+    private void publishEviction(String cacheName, Object key) {
+        try {
+            messageTemplate.convertAndSend(properties.getChannel(),
+                    new CacheEvictionMessage(instanceId, cacheName, key));
+        } catch (Exception e) {
+            logger.warn("广播缓存失效消息失败，缓存: {}, key: {}, 异常: {}", cacheName, key, e.getMessage());
+        }
+    }
+}
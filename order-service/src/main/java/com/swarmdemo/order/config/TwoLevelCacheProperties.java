@@ -0,0 +1,118 @@
+package com.swarmdemo.order.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 二级缓存配置属性
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@ConfigurationProperties(prefix = "cache.two-level")
+public class TwoLevelCacheProperties {
+
+    /**
+     * 广播本地缓存失效消息的Redis频道
+     */
+    private String channel = "cache:evict";
+
+    /**
+     * Redis缓存值序列化方式：smile（带版本头的二进制格式）或 jdk
+     */
+    private String serializer = "smile";
+
+    /**
+     * 未单独配置的缓存使用的默认规格
+     */
+    private Spec defaults = new Spec();
+
+    /**
+     * 按缓存名称单独配置的规格
+     */
+    private Map<String, Spec> caches = new HashMap<>();
+
+    public Spec getSpec(String cacheName) {
+        return caches.getOrDefault(cacheName, defaults);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+
+    public String getSerializer() {
+        return serializer;
+    }
+
+    public void setSerializer(String serializer) {
+        this.serializer = serializer;
+    }
+
+    public Spec getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Spec defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Spec> getCaches() {
+        return caches;
+    }
+
+    public void setCaches(Map<String, Spec> caches) {
+        this.caches = caches;
+    }
+
+    /**
+     * 单个缓存的规格
+     */
+    public static class Spec {
+
+        /**
+         * 本地缓存（L1）最大条目数
+         */
+        private long localMaximumSize = 1000;
+
+        /**
+         * 本地缓存（L1）写入后过期时间
+         */
+        private Duration localTimeToLive = Duration.ofSeconds(60);
+
+        /**
+         * Redis缓存（L2）过期时间
+         */
+        private Duration redisTimeToLive = Duration.ofMinutes(5);
+
+        public long getLocalMaximumSize() {
+            return localMaximumSize;
+        }
+
+        public void setLocalMaximumSize(long localMaximumSize) {
+            this.localMaximumSize = localMaximumSize;
+        }
+
+        public Duration getLocalTimeToLive() {
+            return localTimeToLive;
+        }
+
+        public void setLocalTimeToLive(Duration localTimeToLive) {
+            this.localTimeToLive = localTimeToLive;
+        }
+
+        public Duration getRedisTimeToLive() {
+            return redisTimeToLive;
+        }
+
+        public void setRedisTimeToLive(Duration redisTimeToLive) {
+            this.redisTimeToLive = redisTimeToLive;
+        }
+    }
+}
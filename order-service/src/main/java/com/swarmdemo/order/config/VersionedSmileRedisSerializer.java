@@ -0,0 +1,147 @@
+package com.swarmdemo.order.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 带版本头的Smile二进制缓存序列化器
+ * <p>
+ * 数据格式：魔数(1字节) + 格式版本(1字节) + 值类型 + Smile编码的值。
+ * 集合类型额外记录元素类型，以便反序列化时还原为具体实体。
+ * 版本不匹配、类型不存在或不带魔数的数据按缓存未命中处理。缓存键前缀带有格式版本，
+ * 正常情况下读不到其他格式写入的数据，这里的检查只作为兜底。
+ * <p>
+ * 实体上的 {@code @JsonFormat} 面向接口响应，时间只精确到秒；缓存使用独立的ObjectMapper并忽略时间字段上的
+ * 格式注解，时间按数组形式保留纳秒精度。
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public class VersionedSmileRedisSerializer implements RedisSerializer<Object> {
+
+    public static final byte FORMAT_VERSION = 2;
+
+    private static final byte MAGIC = (byte) 0xC1;
+    private static final byte KIND_OBJECT = 1;
+    private static final byte KIND_LIST = 2;
+    private static final byte KIND_SET = 3;
+
+    private final ObjectMapper objectMapper;
+    private final ClassLoader classLoader;
+
+    public VersionedSmileRedisSerializer(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+        this.objectMapper = new ObjectMapper(new SmileFactory())
+                .findAndRegisterModules()
+                .setAnnotationIntrospector(new FullPrecisionTimeIntrospector())
+                .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+                .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            if (value instanceof Collection) {
+                Collection<?> collection = (Collection<?>) value;
+                out.writeByte(value instanceof Set ? KIND_SET : KIND_LIST);
+                out.writeUTF(elementTypeName(collection));
+            } else {
+                out.writeByte(KIND_OBJECT);
+                out.writeUTF(ClassUtils.getUserClass(value).getName());
+            }
+            // DataOutputStream同时实现了DataOutput，需显式指定按OutputStream写入
+            objectMapper.writeValue((OutputStream) out, value);
+        } catch (IOException e) {
+            throw new SerializationException("缓存值序列化失败: " + value.getClass().getName(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC || bytes.length < 2 || bytes[1] != FORMAT_VERSION) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2))) {
+            byte kind = in.readByte();
+            String typeName = in.readUTF();
+            return objectMapper.readValue((InputStream) in, resolveType(kind, typeName));
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            throw new SerializationException("缓存值反序列化失败", e);
+        }
+    }
+
+    private JavaType resolveType(byte kind, String typeName) throws ClassNotFoundException {
+        Class<?> type = typeName.isEmpty() ? Object.class : ClassUtils.forName(typeName, classLoader);
+        switch (kind) {
+            case KIND_LIST:
+                return objectMapper.getTypeFactory().constructCollectionType(ArrayList.class, type);
+            case KIND_SET:
+                return objectMapper.getTypeFactory().constructCollectionType(LinkedHashSet.class, type);
+            default:
+                return objectMapper.getTypeFactory().constructType(type);
+        }
+    }
+
+    private String elementTypeName(Collection<?> collection) {
+        for (Object element : collection) {
+            if (element != null) {
+                return ClassUtils.getUserClass(element).getName();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * 忽略时间字段上的 {@code @JsonFormat}，其余注解照常生效
+     */
+    private static class FullPrecisionTimeIntrospector extends JacksonAnnotationIntrospector {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public JsonFormat.Value findFormat(Annotated member) {
+            if (Temporal.class.isAssignableFrom(member.getRawType())) {
+                return null;
+            }
+            return super.findFormat(member);
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.swarmdemo.order.controller;
 
 import com.swarmdemo.order.entity.Order;
+import com.swarmdemo.order.exception.BusinessException;
 import com.swarmdemo.order.service.OrderService;
+import com.swarmdemo.order.vo.BulkOrderResult;
+import com.swarmdemo.order.vo.CursorPage;
+import com.swarmdemo.order.vo.OrderSummary;
 import com.swarmdemo.order.vo.OrderVo;
 import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
@@ -12,9 +16,12 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import java.math.BigDecimal;
@@ -49,6 +56,16 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
     }
 
+    /**
+     * 批量创建订单
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkOrderResult> createOrders(@RequestBody List<Order> orders) {
+        logger.info("批量创建订单请求，数量: {}", orders.size());
+        BulkOrderResult result = orderService.createOrders(orders);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * 获取订单详情
      */
@@ -75,9 +92,9 @@ public class OrderController {
      * 获取所有订单
      */
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
+    public ResponseEntity<List<OrderSummary>> getAllOrders() {
         logger.info("获取所有订单");
-        List<Order> orders = orderService.findAllOrders();
+        List<OrderSummary> orders = orderService.findAllOrders();
         return ResponseEntity.ok(orders);
     }
 
@@ -111,6 +128,20 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * 游标分页查询订单
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<Order>> getOrdersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        logger.info("游标分页查询订单，游标: {}, 大小: {}", cursor, size);
+        CursorPage<Order> orders = orderService.findOrdersByCursor(cursor, size, includeTotal);
+        return ResponseEntity.ok(orders);
+    }
+
     /**
      * 分页查询订单详情
      */
@@ -135,9 +166,9 @@ public class OrderController {
      * 根据用户ID获取订单
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getOrdersByUserId(@PathVariable Long userId) {
+    public ResponseEntity<List<OrderSummary>> getOrdersByUserId(@PathVariable Long userId) {
         logger.info("获取用户订单，用户ID: {}", userId);
-        List<Order> orders = orderService.findOrdersByUserId(userId);
+        List<OrderSummary> orders = orderService.findOrdersByUserId(userId);
         return ResponseEntity.ok(orders);
     }
 
@@ -172,13 +203,28 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * 游标分页查询用户订单
+     */
+    @GetMapping("/user/{userId}/cursor")
+    public ResponseEntity<CursorPage<Order>> getOrdersByUserIdAndCursor(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        logger.info("游标分页查询用户订单，用户ID: {}, 游标: {}, 大小: {}", userId, cursor, size);
+        CursorPage<Order> orders = orderService.findOrdersByUserIdAndCursor(userId, cursor, size, includeTotal);
+        return ResponseEntity.ok(orders);
+    }
+
     /**
      * 根据状态查询订单
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable Order.OrderStatus status) {
+    public ResponseEntity<List<OrderSummary>> getOrdersByStatus(@PathVariable Order.OrderStatus status) {
         logger.info("根据状态查询订单: {}", status);
-        List<Order> orders = orderService.findOrdersByStatus(status);
+        List<OrderSummary> orders = orderService.findOrdersByStatus(status);
         return ResponseEntity.ok(orders);
     }
 
@@ -203,6 +249,21 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * 游标分页查询指定状态的订单
+     */
+    @GetMapping("/status/{status}/cursor")
+    public ResponseEntity<CursorPage<Order>> getOrdersByStatusAndCursor(
+            @PathVariable Order.OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        logger.info("游标分页查询指定状态的订单: {}, 游标: {}, 大小: {}", status, cursor, size);
+        CursorPage<Order> orders = orderService.findOrdersByStatusAndCursor(status, cursor, size, includeTotal);
+        return ResponseEntity.ok(orders);
+    }
+
     /**
      * 更新订单
      */
@@ -241,12 +302,15 @@ public class OrderController {
     }
 
     /**
-     * 搜索订单
+     * 按商品名称全文检索订单，按相关度分页返回
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Order>> searchOrders(@RequestParam String productName) {
-        logger.info("搜索订单，商品名称: {}", productName);
-        List<Order> orders = orderService.searchOrdersByProductName(productName);
+    public ResponseEntity<Page<Order>> searchOrders(
+            @RequestParam String productName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        logger.info("搜索订单，商品名称: {}, 页码: {}, 大小: {}", productName, page, size);
+        Page<Order> orders = orderService.searchOrdersByProductName(productName, PageRequest.of(page, size));
         return ResponseEntity.ok(orders);
     }
 
@@ -254,12 +318,12 @@ public class OrderController {
      * 根据价格范围查询订单
      */
     @GetMapping("/price-range")
-    public ResponseEntity<List<Order>> getOrdersByPriceRange(
+    public ResponseEntity<List<OrderSummary>> getOrdersByPriceRange(
             @RequestParam BigDecimal minPrice,
             @RequestParam BigDecimal maxPrice) {
         
         logger.info("根据价格范围查询订单: {} - {}", minPrice, maxPrice);
-        List<Order> orders = orderService.findOrdersByPriceRange(minPrice, maxPrice);
+        List<OrderSummary> orders = orderService.findOrdersByPriceRange(minPrice, maxPrice);
         return ResponseEntity.ok(orders);
     }
 
@@ -267,15 +331,46 @@ public class OrderController {
      * 根据时间范围查询订单
      */
     @GetMapping("/date-range")
-    public ResponseEntity<List<Order>> getOrdersByDateRange(
+    public ResponseEntity<List<OrderSummary>> getOrdersByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
         
         logger.info("根据时间范围查询订单: {} - {}", startTime, endTime);
-        List<Order> orders = orderService.findOrdersByDateRange(startTime, endTime);
+        List<OrderSummary> orders = orderService.findOrdersByDateRange(startTime, endTime);
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * 流式导出订单
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+
+        logger.info("导出订单，格式: {}, 状态: {}, 用户ID: {}", format, status, userId);
+
+        MediaType mediaType;
+        if ("ndjson".equalsIgnoreCase(format)) {
+            mediaType = MediaType.parseMediaType("application/x-ndjson");
+        } else if ("csv".equalsIgnoreCase(format)) {
+            mediaType = MediaType.parseMediaType("text/csv;charset=UTF-8");
+        } else {
+            throw new BusinessException("不支持的导出格式: " + format);
+        }
+
+        StreamingResponseBody body = outputStream ->
+                orderService.exportOrders(status, userId, startTime, endTime, format, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=orders." + format.toLowerCase())
+                .body(body);
+    }
+
     /**
      * 获取订单统计信息
      */
@@ -301,9 +396,10 @@ public class OrderController {
      */
     @GetMapping("/popular-products")
     public ResponseEntity<List<OrderService.PopularProduct>> getPopularProducts(
-            @RequestParam(defaultValue = "10") int limit) {
-        logger.info("获取热门商品，限制: {}", limit);
-        List<OrderService.PopularProduct> products = orderService.getPopularProducts(limit);
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "all") String window) {
+        logger.info("获取热门商品，限制: {}, 时间窗口: {}", limit, window);
+        List<OrderService.PopularProduct> products = orderService.getPopularProducts(limit, window);
         return ResponseEntity.ok(products);
     }
 
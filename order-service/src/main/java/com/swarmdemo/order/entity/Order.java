@@ -7,6 +7,7 @@ import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -18,10 +19,20 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "orders")
-public class Order {
+public class Order implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * ID号段大小：使用表生成器预分配ID，使Hibernate可以对INSERT进行JDBC批处理（IDENTITY会禁用批处理）
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_id_generator")
+    @TableGenerator(name = "order_id_generator", table = "id_generator",
+            pkColumnName = "name", valueColumnName = "next_val", pkColumnValue = "orders",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotNull(message = "用户ID不能为空")
@@ -0,0 +1,88 @@
+package com.swarmdemo.order.entity;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 订单状态汇总实体类，按状态维护订单数量与金额，随订单写操作增量更新
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Entity
+@Table(name = "order_status_summary")
+public class OrderStatusSummary {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 50)
+    private Order.OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // 构造方法
+    public OrderStatusSummary() {}
+
+    public OrderStatusSummary(Order.OrderStatus status, Long orderCount, BigDecimal totalAmount) {
+        this.status = status;
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount;
+    }
+
+    // Getter和Setter方法
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+
+    public Long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(Long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderStatusSummary{" +
+                "status=" + status +
+                ", orderCount=" + orderCount +
+                ", totalAmount=" + totalAmount +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
@@ -0,0 +1,38 @@
+package com.swarmdemo.order.feign;
+
+import com.swarmdemo.order.dto.UserDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 基于JSON接口的用户查询
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+@ConditionalOnProperty(name = "user-service.client", havingValue = "feign", matchIfMissing = true)
+public class FeignUserLookup implements UserLookup {
+
+    @Autowired
+    private UserServiceClient userServiceClient;
+
+    @Override
+    public List<UserDto> getUsersByIds(List<Long> ids) {
+        return userServiceClient.getUsersByIds(ids);
+    }
+
+    @Override
+    public void streamUsersByIds(Collection<Long> ids, Consumer<UserDto> consumer) {
+        List<UserDto> users = userServiceClient.getUsersByIds(new ArrayList<>(ids));
+        if (users != null) {
+            users.forEach(consumer);
+        }
+    }
+}
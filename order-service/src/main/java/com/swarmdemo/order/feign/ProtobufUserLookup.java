@@ -0,0 +1,68 @@
+package com.swarmdemo.order.feign;
+
+import com.swarmdemo.order.dto.UserDto;
+import feign.FeignException;
+import feign.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 基于protobuf内部接口的用户查询
+ * <p>
+ * ID数量不超过 {@code stream-threshold} 时使用GET批量接口，超过时改用流式接口，
+ * 用户服务分批查询并逐批写出，这里边读边解析，不需要等待完整响应。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+@ConditionalOnProperty(name = "user-service.client", havingValue = "protobuf")
+public class ProtobufUserLookup implements UserLookup {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProtobufUserLookup.class);
+
+    @Autowired
+    private UserBinaryClient userBinaryClient;
+
+    @Value("${user-service.protobuf.stream-threshold:100}")
+    private int streamThreshold;
+
+    @Override
+    public List<UserDto> getUsersByIds(List<Long> ids) {
+        List<UserDto> users = new ArrayList<>(ids.size());
+        streamUsersByIds(ids, users::add);
+        return users;
+    }
+
+    @Override
+    public void streamUsersByIds(Collection<Long> ids, Consumer<UserDto> consumer) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try (Response response = ids.size() <= streamThreshold
+                ? userBinaryClient.getUsersByIds(new ArrayList<>(ids))
+                : userBinaryClient.streamUsersByIds(UserProto.writeIds(ids))) {
+            if (response.status() != 200 || response.body() == null) {
+                throw FeignException.errorStatus("UserBinaryClient#getUsersByIds", response);
+            }
+            try (InputStream body = response.body().asInputStream()) {
+                int count = UserProto.readDelimited(body, consumer);
+                logger.debug("protobuf接口获取用户完成，请求: {}, 返回: {}", ids.size(), count);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("解析用户服务响应失败", e);
+        }
+    }
+}
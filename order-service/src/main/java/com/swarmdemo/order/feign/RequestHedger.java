@@ -0,0 +1,267 @@
+package com.swarmdemo.order.feign;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * 对冲请求执行器
+ * <p>
+ * 用于幂等的GET调用：首次请求超过近期延迟的p95仍未返回时，再发起一次相同的请求，取先成功的结果。
+ * 第二次请求由负载均衡器按在途请求数和延迟选择实例，通常会落到另一个副本上。
+ * 对冲请求数受预算限制（默认不超过总请求数的10%），避免下游整体变慢时对冲放大负载。
+ * <p>
+ * 首次请求在调用线程上执行，不经过线程切换；只有对冲请求提交到有界线程池，线程池大小与用户服务的舱壁线程池一致，
+ * 线程池已满时放弃对冲。对冲请求先返回时中断调用线程：虚拟线程和JDK HttpClient传输层会立即放弃首次请求，
+ * 不响应中断的传输层上调用线程等首次请求结束（或读超时）后返回对冲结果。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+public class RequestHedger {
+
+    private static final int SAMPLE_SIZE = 256;
+    private static final int RECOMPUTE_INTERVAL = 64;
+    private static final double MAX_BUDGET = 10;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user-service.hedging.enabled:false}")
+    private boolean enabled;
+
+    @Value("${user-service.hedging.percentile:0.95}")
+    private double percentile;
+
+    @Value("${user-service.hedging.min-delay:10ms}")
+    private Duration minDelay;
+
+    @Value("${user-service.hedging.max-ratio:0.1}")
+    private double maxRatio;
+
+    @Value("${resilience4j.thread-pool-bulkhead.instances.user-service.core-thread-pool-size:8}")
+    private int hedgeCoreThreads;
+
+    @Value("${resilience4j.thread-pool-bulkhead.instances.user-service.max-thread-pool-size:16}")
+    private int hedgeMaxThreads;
+
+    @Value("${resilience4j.thread-pool-bulkhead.instances.user-service.queue-capacity:50}")
+    private int hedgeQueueCapacity;
+
+    @Value("${virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLE_SIZE);
+    private final AtomicInteger sampleIndex = new AtomicInteger();
+    private volatile long hedgeDelayNanos;
+
+    private double budget;
+
+    private ExecutorService hedgeExecutor;
+    private ScheduledExecutorService scheduler;
+
+    private Counter hedgedCounter;
+    private Counter hedgeWinCounter;
+
+    @PostConstruct
+    public void init() {
+        hedgeDelayNanos = minDelay.toNanos();
+        if (virtualThreads) {
+            // 虚拟线程模式下调用方由信号量舱壁限制并发，对冲数又受预算限制，每个对冲使用一个虚拟线程
+            hedgeExecutor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("hedged-call-vt-", 0).factory());
+        } else {
+            AtomicInteger threadIndex = new AtomicInteger();
+            hedgeExecutor = new ThreadPoolExecutor(hedgeCoreThreads, hedgeMaxThreads, 1, TimeUnit.MINUTES,
+                    new ArrayBlockingQueue<>(hedgeQueueCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, "hedged-call-" + threadIndex.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hedged-call-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        hedgedCounter = Counter.builder("order.user.hedging.hedged")
+                .description("Hedge requests sent to user-service")
+                .register(meterRegistry);
+        hedgeWinCounter = Counter.builder("order.user.hedging.wins")
+                .description("Hedge requests that returned before the original request")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+        hedgeExecutor.shutdown();
+    }
+
+    /**
+     * 执行调用，开启对冲时在p95延迟后补发一次请求
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        HedgedCall<T> hedgedCall = new HedgedCall<>(Thread.currentThread());
+        hedgedCall.pending.incrementAndGet();
+        ScheduledFuture<?> hedge = scheduler.schedule(() -> hedge(call, hedgedCall),
+                hedgeDelayNanos, TimeUnit.NANOSECONDS);
+
+        long startTime = System.nanoTime();
+        T value = null;
+        RuntimeException failure = null;
+        try {
+            value = call.get();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        hedgedCall.finishCaller();
+        complete(hedgedCall, value, failure, System.nanoTime() - startTime, false);
+        hedge.cancel(false);
+
+        try {
+            return hedgedCall.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private <T> void hedge(Supplier<T> call, HedgedCall<T> hedgedCall) {
+        if (hedgedCall.result.isDone() || !tryAcquireBudget()) {
+            return;
+        }
+        hedgedCall.pending.incrementAndGet();
+        try {
+            hedgeExecutor.execute(() -> {
+                long startTime = System.nanoTime();
+                T value = null;
+                RuntimeException failure = null;
+                try {
+                    value = call.get();
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+                complete(hedgedCall, value, failure, System.nanoTime() - startTime, true);
+            });
+            hedgedCounter.increment();
+        } catch (RejectedExecutionException e) {
+            // 对冲线程池已满，放弃本次对冲；首次请求已失败时由这里结束调用
+            if (hedgedCall.pending.decrementAndGet() == 0) {
+                hedgedCall.result.completeExceptionally(hedgedCall.failure);
+            }
+        }
+    }
+
+    /**
+     * 第一个成功的结果完成调用；所有请求都失败时以最后一个失败结束
+     */
+    private <T> void complete(HedgedCall<T> hedgedCall, T value, RuntimeException failure,
+                              long latencyNanos, boolean isHedge) {
+        if (failure == null) {
+            record(latencyNanos);
+            if (hedgedCall.result.complete(value) && isHedge) {
+                hedgeWinCounter.increment();
+                hedgedCall.interruptCaller();
+            }
+        } else {
+            hedgedCall.failure = failure;
+        }
+        if (hedgedCall.pending.decrementAndGet() == 0 && failure != null) {
+            hedgedCall.result.completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * 每个成功的请求为预算增加 max-ratio，每次对冲消耗1
+     */
+    private synchronized boolean tryAcquireBudget() {
+        if (budget >= 1) {
+            budget--;
+            return true;
+        }
+        return false;
+    }
+
+    private void record(long latencyNanos) {
+        synchronized (this) {
+            budget = Math.min(MAX_BUDGET, budget + maxRatio);
+        }
+        int index = sampleIndex.getAndIncrement() & Integer.MAX_VALUE;
+        samples.set(index % SAMPLE_SIZE, latencyNanos);
+        if (index > 0 && index % RECOMPUTE_INTERVAL == 0) {
+            recomputeDelay(Math.min(index, SAMPLE_SIZE));
+        }
+    }
+
+    private void recomputeDelay(int count) {
+        long[] sorted = new long[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        long delay = sorted[Math.min(count - 1, (int) Math.ceil(count * percentile) - 1)];
+        hedgeDelayNanos = Math.max(minDelay.toNanos(), delay);
+    }
+
+    private static final class HedgedCall<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final Thread caller;
+        private volatile RuntimeException failure;
+        private boolean callerRunning = true;
+        private boolean callerInterrupted;
+
+        private HedgedCall(Thread caller) {
+            this.caller = caller;
+        }
+
+        /**
+         * 对冲请求先返回时中断仍在等待首次请求的调用线程
+         */
+        private synchronized void interruptCaller() {
+            if (callerRunning) {
+                callerInterrupted = true;
+                caller.interrupt();
+            }
+        }
+
+        /**
+         * 首次请求结束，清除由对冲设置的中断标记
+         */
+        private synchronized void finishCaller() {
+            callerRunning = false;
+            if (callerInterrupted) {
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.swarmdemo.order.feign;
+
+import com.swarmdemo.order.dto.UserDto;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 带熔断、超时和舱壁隔离的用户服务调用
+ * <p>
+ * 注解只在通过Spring代理调用公共方法时生效，因此独立为组件。默认在舱壁线程池中执行调用；
+ * 虚拟线程模式下每次调用使用一个虚拟线程，由信号量舱壁限制并发数。
+ * 超过时间限制或熔断打开时立即返回空结果，调用方按降级用户处理。
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+public class ResilientUserClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientUserClient.class);
+
+    private static final String USER_SERVICE = "user-service";
+
+    @Autowired
+    private UserLookup userLookup;
+
+    @Autowired
+    private RequestHedger requestHedger;
+
+    private final ExecutorService virtualThreadExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("user-service-vt-", 0).factory());
+
+    /**
+     * 批量获取用户信息
+     */
+    @CircuitBreaker(name = USER_SERVICE, fallbackMethod = "getUsersFallback")
+    @TimeLimiter(name = USER_SERVICE)
+    @Bulkhead(name = USER_SERVICE, type = Bulkhead.Type.THREADPOOL)
+    public CompletableFuture<List<UserDto>> getUsersByIds(List<Long> ids) {
+        return CompletableFuture.completedFuture(requestHedger.execute(() -> userLookup.getUsersByIds(ids)));
+    }
+
+    /**
+     * 批量获取用户信息（虚拟线程模式）
+     */
+    @CircuitBreaker(name = USER_SERVICE, fallbackMethod = "getUsersFallback")
+    @TimeLimiter(name = USER_SERVICE)
+    @Bulkhead(name = USER_SERVICE, type = Bulkhead.Type.SEMAPHORE)
+    public CompletableFuture<List<UserDto>> getUsersByIdsOnVirtualThread(List<Long> ids) {
+        return CompletableFuture.supplyAsync(
+                () -> requestHedger.execute(() -> userLookup.getUsersByIds(ids)), virtualThreadExecutor);
+    }
+
+    private CompletableFuture<List<UserDto>> getUsersFallback(List<Long> ids, Throwable ex) {
+        logger.warn("用户服务调用失败，使用降级方案，用户数量: {}, 异常: {}", ids.size(), ex.toString());
+        return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+}
@@ -0,0 +1,42 @@
+package com.swarmdemo.order.feign;
+
+import feign.Response;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+/**
+ * 用户服务内部二进制接口客户端
+ * <p>
+ * 返回原始 {@link Response}，由调用方按protobuf流式解析响应体；
+ * 与 {@link UserServiceClient} 共用服务名，负载均衡和传输层配置保持一致。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@FeignClient(name = "user-service", contextId = "userBinaryClient")
+public interface UserBinaryClient {
+
+    /**
+     * 根据用户ID获取用户信息
+     */
+    @GetMapping(value = "/internal/users/{id}", produces = UserProto.MEDIA_TYPE)
+    Response getUserById(@PathVariable("id") Long id);
+
+    /**
+     * 根据用户ID列表批量获取用户信息
+     */
+    @GetMapping(value = "/internal/users/batch", produces = UserProto.MEDIA_TYPE)
+    Response getUsersByIds(@RequestParam("ids") List<Long> ids);
+
+    /**
+     * 流式批量获取用户信息，请求体为 UserIds 消息
+     */
+    @PostMapping(value = "/internal/users/stream", consumes = UserProto.MEDIA_TYPE, produces = UserProto.MEDIA_TYPE)
+    Response streamUsersByIds(@RequestBody byte[] ids);
+}
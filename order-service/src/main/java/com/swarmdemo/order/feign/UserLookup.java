@@ -0,0 +1,28 @@
+package com.swarmdemo.order.feign;
+
+import com.swarmdemo.order.dto.UserDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 用户查询
+ * <p>
+ * 由 {@code user-service.client} 选择实现：{@code feign} 使用JSON接口，{@code protobuf} 使用内部二进制接口。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public interface UserLookup {
+
+    /**
+     * 根据用户ID列表批量获取用户信息
+     */
+    List<UserDto> getUsersByIds(List<Long> ids);
+
+    /**
+     * 批量获取用户信息，每得到一个用户立即回调，适合ID数量较大的场景
+     */
+    void streamUsersByIds(Collection<Long> ids, Consumer<UserDto> consumer);
+}
@@ -0,0 +1,110 @@
+package com.swarmdemo.order.feign;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.swarmdemo.order.dto.UserDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * 用户服务内部二进制接口的protobuf编解码
+ * <p>
+ * 消息格式与用户服务的 {@code proto/user.proto} 一致，未知字段直接跳过，用户服务新增字段不影响旧版本解析。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public final class UserProto {
+
+    public static final String MEDIA_TYPE = "application/x-protobuf";
+
+    private static final int USER_ID = 1;
+    private static final int USER_NAME = 2;
+    private static final int USER_EMAIL = 3;
+    private static final int USER_AGE = 4;
+
+    private static final int IDS = 1;
+
+    /**
+     * 单条消息大小上限，防止错误的长度前缀导致分配过大的缓冲区
+     */
+    private static final int MAX_MESSAGE_SIZE = 64 * 1024;
+
+    private UserProto() {
+    }
+
+    /**
+     * 编码 UserIds 请求消息（打包编码）
+     */
+    public static byte[] writeIds(Collection<Long> ids) throws IOException {
+        int payloadSize = 0;
+        for (Long id : ids) {
+            payloadSize += CodedOutputStream.computeInt64SizeNoTag(id);
+        }
+        byte[] bytes = new byte[CodedOutputStream.computeTagSize(IDS)
+                + CodedOutputStream.computeUInt32SizeNoTag(payloadSize) + payloadSize];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        output.writeTag(IDS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(payloadSize);
+        for (Long id : ids) {
+            output.writeInt64NoTag(id);
+        }
+        output.checkNoSpaceLeft();
+        return bytes;
+    }
+
+    /**
+     * 逐条读取长度前缀的 User 消息，每解析出一个用户立即回调
+     *
+     * @return 读取的用户数量
+     */
+    public static int readDelimited(InputStream inputStream, Consumer<UserDto> consumer) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(inputStream);
+        int count = 0;
+        while (!input.isAtEnd()) {
+            int size = input.readRawVarint32();
+            if (size < 0 || size > MAX_MESSAGE_SIZE) {
+                throw new IOException("用户消息长度异常: " + size);
+            }
+            int limit = input.pushLimit(size);
+            consumer.accept(readUser(input));
+            input.popLimit(limit);
+            // 长连接上的大响应会超过CodedInputStream默认的总量限制，按消息重置计数
+            input.resetSizeCounter();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 读取单个 User 消息（读到流末尾或当前limit为止）
+     */
+    public static UserDto readUser(CodedInputStream input) throws IOException {
+        UserDto user = new UserDto();
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case USER_ID:
+                    user.setId(input.readInt64());
+                    break;
+                case USER_NAME:
+                    user.setName(input.readStringRequireUtf8());
+                    break;
+                case USER_EMAIL:
+                    user.setEmail(input.readStringRequireUtf8());
+                    break;
+                case USER_AGE:
+                    user.setAge(input.readInt32());
+                    break;
+                default:
+                    input.skipField(tag);
+                    break;
+            }
+        }
+        return user;
+    }
+}
@@ -0,0 +1,279 @@
+package com.swarmdemo.order.feign;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swarmdemo.order.dto.UserDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 用户信息解析器
+ * <p>
+ * 位于 {@link ResilientUserClient} 之前：本地缓存命中直接返回；同一用户ID的并发查询合并为一次调用；
+ * 在短时间窗口内到达的查询合并为批量请求，超过批量上限的部分拆分为多个并发请求，
+ * 并发度由用户服务舱壁限制。未找到或调用失败的用户不会被缓存，由调用方决定降级方式。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+public class UserResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserResolver.class);
+
+    @Autowired
+    private ResilientUserClient resilientUserClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user-resolver.cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    @Value("${user-resolver.cache.time-to-live:60s}")
+    private Duration cacheTimeToLive;
+
+    @Value("${user-resolver.batch.window:5ms}")
+    private Duration batchWindow;
+
+    @Value("${user-resolver.batch.max-size:100}")
+    private int maxBatchSize;
+
+    @Value("${user-resolver.batch.threads:4}")
+    private int batchThreads;
+
+    @Value("${user-resolver.wait-timeout:10s}")
+    private Duration waitTimeout;
+
+    @Value("${virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
+    private final ConcurrentMap<Long, CompletableFuture<UserDto>> inFlight = new ConcurrentHashMap<>();
+    private final Queue<Long> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private Cache<Long, UserDto> cache;
+    private ScheduledExecutorService executor;
+
+    private Counter hitCounter;
+    private Counter missCounter;
+    private Counter coalescedCounter;
+    private Counter failureCounter;
+    private Counter deadlineExceededCounter;
+    private DistributionSummary batchSizeSummary;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheTimeToLive)
+                .build();
+
+        if (virtualThreads) {
+            executor = Executors.newScheduledThreadPool(batchThreads,
+                    Thread.ofVirtual().name("user-resolver-vt-", 1).factory());
+        } else {
+            AtomicInteger threadIndex = new AtomicInteger();
+            executor = Executors.newScheduledThreadPool(batchThreads, runnable -> {
+                Thread thread = new Thread(runnable, "user-resolver-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        hitCounter = requestCounter("hit");
+        missCounter = requestCounter("miss");
+        coalescedCounter = requestCounter("coalesced");
+        failureCounter = Counter.builder("order.user.resolver.failures")
+                .description("Failed batch lookups against user-service")
+                .register(meterRegistry);
+        deadlineExceededCounter = Counter.builder("order.user.resolver.deadline.exceeded")
+                .description("Bulk lookups that returned before every user was resolved")
+                .register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("order.user.resolver.batch.size")
+                .description("Number of user IDs per batch request to user-service")
+                .register(meterRegistry);
+        Gauge.builder("order.user.resolver.cache.size", cache, Cache::estimatedSize)
+                .description("Number of users held in the local cache")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 解析单个用户，未找到或调用失败时返回 null
+     */
+    public UserDto resolve(Long userId) {
+        return resolveAll(List.of(userId)).get(userId);
+    }
+
+    /**
+     * 批量解析用户，返回结果中只包含成功获取的用户
+     * <p>
+     * 所有用户ID同时发起查询，整体等待时间不超过 {@code user-resolver.wait-timeout}，
+     * 超时未返回的用户不包含在结果中，其查询完成后仍会写入本地缓存。
+     */
+    public Map<Long, UserDto> resolveAll(Collection<Long> userIds) {
+        Map<Long, CompletableFuture<UserDto>> futures = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            if (userId != null && !futures.containsKey(userId)) {
+                futures.put(userId, resolveAsync(userId));
+            }
+        }
+
+        awaitAll(futures.values());
+
+        Map<Long, UserDto> users = new HashMap<>(futures.size() * 2);
+        int unresolved = 0;
+        for (Map.Entry<Long, CompletableFuture<UserDto>> entry : futures.entrySet()) {
+            CompletableFuture<UserDto> future = entry.getValue();
+            UserDto user = future.isDone() && !future.isCompletedExceptionally() ? future.getNow(null) : null;
+            if (user != null) {
+                users.put(entry.getKey(), user);
+            } else if (!future.isDone()) {
+                unresolved++;
+            }
+        }
+        if (unresolved > 0) {
+            deadlineExceededCounter.increment();
+            logger.warn("等待用户信息超时，未返回用户数量: {}/{}", unresolved, futures.size());
+        }
+        return users;
+    }
+
+    /**
+     * 异步解析单个用户
+     */
+    public CompletableFuture<UserDto> resolveAsync(Long userId) {
+        UserDto cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            hitCounter.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<UserDto> created = new CompletableFuture<>();
+        CompletableFuture<UserDto> existing = inFlight.putIfAbsent(userId, created);
+        if (existing != null) {
+            coalescedCounter.increment();
+            return existing;
+        }
+
+        missCounter.increment();
+        pending.add(userId);
+        if (pendingCount.incrementAndGet() >= maxBatchSize) {
+            executor.execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::flush, batchWindow.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return created;
+    }
+
+    private void awaitAll(Collection<CompletableFuture<UserDto>> futures) {
+        if (futures.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // 已完成的结果由调用方逐个读取，未完成的按未找到处理
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+
+        List<Long> batch = new ArrayList<>(maxBatchSize);
+        Long userId;
+        while ((userId = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(userId);
+            if (batch.size() >= maxBatchSize) {
+                loadBatch(batch);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            loadBatch(batch);
+        }
+    }
+
+    /**
+     * 发起一次批量查询，不阻塞解析线程，结果返回后完成对应的等待者
+     */
+    private void loadBatch(List<Long> userIds) {
+        batchSizeSummary.record(userIds.size());
+
+        CompletableFuture<List<UserDto>> call;
+        try {
+            call = virtualThreads
+                    ? resilientUserClient.getUsersByIdsOnVirtualThread(userIds)
+                    : resilientUserClient.getUsersByIds(userIds);
+        } catch (Exception e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+
+        call.whenComplete((users, ex) -> {
+            Map<Long, UserDto> loaded = new HashMap<>(userIds.size() * 2);
+            if (ex != null) {
+                failureCounter.increment();
+                logger.warn("批量获取用户信息失败，用户数量: {}, 异常: {}", userIds.size(), ex.getMessage());
+            } else if (users != null) {
+                users.forEach(user -> loaded.put(user.getId(), user));
+            }
+
+            for (Long userId : userIds) {
+                UserDto user = loaded.get(userId);
+                if (user != null) {
+                    cache.put(userId, user);
+                }
+                CompletableFuture<UserDto> future = inFlight.remove(userId);
+                if (future != null) {
+                    future.complete(user);
+                }
+            }
+        });
+    }
+
+    private Counter requestCounter(String result) {
+        return Counter.builder("order.user.resolver.requests")
+                .description("User lookups by cache and coalescing outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
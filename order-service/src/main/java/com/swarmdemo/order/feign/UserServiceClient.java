@@ -5,6 +5,9 @@ import com.swarmdemo.order.feign.fallback.UserServiceFallback;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 /**
  * 用户服务Feign客户端
@@ -23,4 +26,10 @@ public interface UserServiceClient {
      */
     @GetMapping("/users/{id}")
     UserDto getUserById(@PathVariable("id") Long id);
+
+    /**
+     * 根据用户ID列表批量获取用户信息
+     */
+    @GetMapping("/users/batch")
+    List<UserDto> getUsersByIds(@RequestParam("ids") List<Long> ids);
 }
\ No newline at end of file
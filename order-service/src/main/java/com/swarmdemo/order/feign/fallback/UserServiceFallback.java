@@ -6,6 +6,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * 用户服务降级处理
  * 
@@ -20,7 +23,18 @@ public class UserServiceFallback implements UserServiceClient {
     @Override
     public UserDto getUserById(Long id) {
         logger.warn("用户服务调用失败，执行降级处理，用户ID: {}", id);
-        
+        return createFallbackUser(id);
+    }
+
+    @Override
+    public List<UserDto> getUsersByIds(List<Long> ids) {
+        logger.warn("用户服务批量调用失败，执行降级处理，用户数量: {}", ids.size());
+        return ids.stream()
+                .map(this::createFallbackUser)
+                .collect(Collectors.toList());
+    }
+
+    private UserDto createFallbackUser(Long id) {
         UserDto fallbackUser = new UserDto();
         fallbackUser.setId(id);
         fallbackUser.setName("未知用户");
@@ -0,0 +1,232 @@
+package com.swarmdemo.order.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 自适应并发限制器
+ * <p>
+ * 采用梯度算法：按采样窗口统计请求平均耗时（短期RTT），与其指数移动平均（长期RTT）比较，
+ * 短期RTT明显变长说明请求开始在数据库连接池等资源上排队，按比例收紧并发上限；
+ * 耗时恢复后以 sqrt(limit) 的步长放宽。请求失败（5xx）视为过载信号，直接按比例下调上限。
+ * <p>
+ * 不同优先级可使用的并发额度不同：写请求可用全部额度，普通读请求和重量级读请求只能使用一部分，
+ * 过载时先拒绝重量级读请求，写请求最后被拒绝。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    /**
+     * 请求优先级
+     */
+    public enum Priority {
+        /**
+         * 写请求：创建、更新、删除订单
+         */
+        CRITICAL(1.0),
+        /**
+         * 普通读请求
+         */
+        NORMAL(0.8),
+        /**
+         * 重量级读请求：订单详情列表、导出等
+         */
+        SHEDDABLE(0.5);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${order.concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${order.concurrency-limit.min-limit:5}")
+    private int minLimit;
+
+    @Value("${order.concurrency-limit.max-limit:200}")
+    private int maxLimit;
+
+    /**
+     * 短期RTT超过长期RTT的容忍倍数
+     */
+    @Value("${order.concurrency-limit.rtt-tolerance:1.5}")
+    private double rttTolerance;
+
+    /**
+     * 新上限的平滑系数
+     */
+    @Value("${order.concurrency-limit.smoothing:0.2}")
+    private double smoothing;
+
+    /**
+     * 长期RTT的窗口（以采样窗口数计）
+     */
+    @Value("${order.concurrency-limit.long-window:600}")
+    private int longWindow;
+
+    /**
+     * 一个采样窗口的最少请求数
+     */
+    @Value("${order.concurrency-limit.window-min-samples:10}")
+    private int windowMinSamples;
+
+    @Value("${order.concurrency-limit.window-min-time:100ms}")
+    private Duration windowMinTime;
+
+    /**
+     * 过载（失败）时的下调系数
+     */
+    @Value("${order.concurrency-limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder windowDrops = new LongAdder();
+    private volatile int windowMaxInFlight;
+    private volatile long windowStart = System.nanoTime();
+
+    private volatile double limit;
+    private double longRtt;
+
+    private final Map<Priority, Counter> rejectedCounters = new EnumMap<>(Priority.class);
+
+    @PostConstruct
+    public void init() {
+        limit = initialLimit;
+        Gauge.builder("order.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for order endpoints")
+                .register(meterRegistry);
+        Gauge.builder("order.concurrency.inflight", inFlight, AtomicInteger::get)
+                .description("Order requests currently in flight")
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            rejectedCounters.put(priority, Counter.builder("order.concurrency.rejected")
+                    .description("Order requests shed by the adaptive concurrency limiter")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * 尝试获取执行许可，超出该优先级可用的并发额度时返回 false
+     */
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejectedCounters.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                if (current + 1 > windowMaxInFlight) {
+                    windowMaxInFlight = current + 1;
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 请求完成后释放许可并记录耗时
+     *
+     * @param rttNanos 请求耗时，小于0表示不采样（如长时间的流式响应）
+     * @param dropped  请求是否因过载失败
+     */
+    public void release(long rttNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+        if (dropped) {
+            windowDrops.increment();
+        } else if (rttNanos >= 0) {
+            windowRttSum.add(rttNanos);
+            windowSamples.increment();
+        }
+
+        long now = System.nanoTime();
+        if (now - windowStart >= windowMinTime.toNanos()
+                && windowSamples.sum() + windowDrops.sum() >= windowMinSamples) {
+            updateLimit(now);
+        }
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void updateLimit(long now) {
+        if (now - windowStart < windowMinTime.toNanos()) {
+            return;
+        }
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttSum.sumThenReset();
+        long drops = windowDrops.sumThenReset();
+        int maxInFlight = windowMaxInFlight;
+        windowMaxInFlight = inFlight.get();
+        windowStart = now;
+
+        double newLimit;
+        if (drops > 0) {
+            newLimit = limit * backoffRatio;
+        } else if (samples == 0) {
+            return;
+        } else {
+            double shortRtt = (double) rttSum / samples;
+            if (longRtt == 0) {
+                longRtt = shortRtt;
+            } else {
+                longRtt += (shortRtt - longRtt) * 2.0 / (longWindow + 1);
+                // 长期RTT远高于当前RTT时（例如上一次过载刚结束）加速回落
+                if (longRtt / shortRtt > 2) {
+                    longRtt *= 0.95;
+                }
+            }
+
+            // 实际并发远低于上限时说明是负载不足而不是限制生效，不调整上限
+            if (maxInFlight < limit / 2) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+            newLimit = limit * gradient + Math.sqrt(limit);
+        }
+
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        if ((int) newLimit != (int) limit) {
+            logger.debug("并发上限调整: {} -> {}, 长期RTT: {}ms", (int) limit, (int) newLimit,
+                    TimeUnit.NANOSECONDS.toMillis((long) longRtt));
+        }
+        limit = newLimit;
+    }
+}
@@ -0,0 +1,129 @@
+package com.swarmdemo.order.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 订单接口并发限制过滤器
+ * <p>
+ * 在请求进入 {@code OrderController} 之前按优先级向 {@link AdaptiveConcurrencyLimiter} 申请许可，
+ * 超出当前并发上限时直接返回503，不占用数据库连接。异步（流式导出）请求在异步处理结束时释放许可，且不参与耗时采样。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String ORDERS_PATH = "/orders";
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${order.concurrency-limit.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled
+                || !(path.equals(ORDERS_PATH) || path.startsWith(ORDERS_PATH + "/"))
+                || path.equals(ORDERS_PATH + "/health");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter.Priority priority = priorityOf(request);
+        if (!limiter.tryAcquire(priority)) {
+            reject(response);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        boolean released = false;
+        boolean dropped = true;
+        try {
+            chain.doFilter(request, response);
+            dropped = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+                released = true;
+            }
+        } finally {
+            if (!released) {
+                limiter.release(System.nanoTime() - startTime, dropped);
+            }
+        }
+    }
+
+    /**
+     * 写请求优先级最高；返回订单详情（需要查询用户服务）或导出的读请求最先被拒绝
+     */
+    private AdaptiveConcurrencyLimiter.Priority priorityOf(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return AdaptiveConcurrencyLimiter.Priority.CRITICAL;
+        }
+        String path = request.getRequestURI();
+        if (path.endsWith("/details") || path.endsWith("/export")) {
+            return AdaptiveConcurrencyLimiter.Priority.SHEDDABLE;
+        }
+        return AdaptiveConcurrencyLimiter.Priority.NORMAL;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "服务繁忙");
+        body.put("message", "当前请求过多，请稍后重试");
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private class ReleaseOnCompletion implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.release(-1, false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
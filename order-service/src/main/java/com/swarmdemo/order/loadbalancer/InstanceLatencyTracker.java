@@ -0,0 +1,136 @@
+package com.swarmdemo.order.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 服务实例延迟跟踪
+ * <p>
+ * 作为负载均衡生命周期回调，记录每个实例的在途请求数和峰值EWMA延迟：
+ * 新样本高于当前值时直接取新样本，低于当前值时按距上次样本的时间指数衰减，
+ * 慢实例会被迅速识别，恢复后逐渐重新获得流量。失败的请求按惩罚延迟计入。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+public class InstanceLatencyTracker
+        implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    @Value("${loadbalancer.peak-ewma.decay-time:10s}")
+    private Duration decayTime;
+
+    @Value("${loadbalancer.peak-ewma.failure-penalty:5s}")
+    private Duration failurePenalty;
+
+    private final ConcurrentMap<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext) {
+            ((TimedRequestContext) request.getContext()).setRequestStartTime(System.nanoTime());
+        }
+        statsOf(lbResponse.getServer()).outstanding.incrementAndGet();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceStats instanceStats = statsOf(lbResponse.getServer());
+        instanceStats.outstanding.decrementAndGet();
+
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            instanceStats.observe(failurePenalty.toNanos(), decayTime.toNanos());
+            return;
+        }
+        Request<RequestDataContext> request = completionContext.getLoadBalancerRequest();
+        if (request != null && request.getContext() instanceof TimedRequestContext) {
+            long startTime = ((TimedRequestContext) request.getContext()).getRequestStartTime();
+            if (startTime > 0) {
+                instanceStats.observe(System.nanoTime() - startTime, decayTime.toNanos());
+            }
+        }
+    }
+
+    /**
+     * 实例的负载代价：峰值EWMA延迟 ×（在途请求数 + 1）。
+     * 尚无延迟样本的实例代价为0，以便新实例尽快获得流量并产生样本。
+     */
+    public double cost(ServiceInstance instance) {
+        InstanceStats instanceStats = stats.get(key(instance));
+        if (instanceStats == null) {
+            return 0;
+        }
+        int outstanding = Math.max(0, instanceStats.outstanding.get());
+        double latency = instanceStats.currentLatency(decayTime.toNanos());
+        if (latency == 0) {
+            return outstanding == 0 ? 0 : failurePenalty.toNanos() * outstanding;
+        }
+        return latency * (outstanding + 1);
+    }
+
+    private InstanceStats statsOf(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), k -> new InstanceStats());
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    /**
+     * 单个实例的统计
+     */
+    private static final class InstanceStats {
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private double latency;
+        private long lastUpdate = System.nanoTime();
+
+        synchronized void observe(long sampleNanos, long decayNanos) {
+            long now = System.nanoTime();
+            if (sampleNanos > latency) {
+                latency = sampleNanos;
+            } else {
+                double weight = Math.exp(-(double) (now - lastUpdate) / decayNanos);
+                latency = latency * weight + sampleNanos * (1 - weight);
+            }
+            lastUpdate = now;
+        }
+
+        synchronized double currentLatency(long decayNanos) {
+            // 长时间没有样本时延迟估计逐渐衰减，避免曾经慢过的实例永远得不到流量
+            return latency * Math.exp(-(double) (System.nanoTime() - lastUpdate) / (decayNanos * 10));
+        }
+    }
+}
@@ -1,16 +1,24 @@
 package com.swarmdemo.order.repository;
 
 import com.swarmdemo.order.entity.Order;
+import com.swarmdemo.order.vo.OrderSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 /**
  * 订单数据访问接口
@@ -19,7 +27,25 @@ import java.util.List;
  * @since 2025-08-25
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
+
+    /**
+     * 列表查询的投影：直接构造 {@link OrderSummary}，结果不进入持久化上下文
+     */
+    String SUMMARY_SELECT = "SELECT new com.swarmdemo.order.vo.OrderSummary(o.id, o.userId, o.productName, " +
+                            "o.quantity, o.price, o.status, o.createdAt, o.updatedAt) FROM Order o ";
+
+    /**
+     * 投影查询：获取所有订单
+     */
+    @Query(SUMMARY_SELECT)
+    List<OrderSummary> findAllSummaries();
+
+    /**
+     * 投影查询：根据用户ID查找订单
+     */
+    @Query(SUMMARY_SELECT + "WHERE o.userId = :userId")
+    List<OrderSummary> findSummariesByUserId(@Param("userId") Long userId);
 
     /**
      * 根据用户ID查找订单
@@ -32,34 +58,76 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByUserId(Long userId, Pageable pageable);
 
     /**
-     * 根据状态查找订单
+     * 投影查询：根据状态查找订单
      */
-    List<Order> findByStatus(Order.OrderStatus status);
+    @Query(SUMMARY_SELECT + "WHERE o.status = :status")
+    List<OrderSummary> findSummariesByStatus(@Param("status") Order.OrderStatus status);
 
     /**
      * 分页查询指定状态的订单
      */
     Page<Order> findByStatus(Order.OrderStatus status, Pageable pageable);
 
+    /**
+     * 游标分页：按ID倒序获取第一页订单
+     */
+    List<Order> findAllByOrderByIdDesc(Pageable pageable);
+
+    /**
+     * 游标分页：获取ID小于游标的订单
+     */
+    List<Order> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
+
+    /**
+     * 游标分页：按ID倒序获取用户订单第一页
+     */
+    List<Order> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
+    /**
+     * 游标分页：获取ID小于游标的用户订单
+     */
+    List<Order> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long id, Pageable pageable);
+
+    /**
+     * 游标分页：按ID倒序获取指定状态订单第一页
+     */
+    List<Order> findByStatusOrderByIdDesc(Order.OrderStatus status, Pageable pageable);
+
+    /**
+     * 游标分页：获取ID小于游标的指定状态订单
+     */
+    List<Order> findByStatusAndIdLessThanOrderByIdDesc(Order.OrderStatus status, Long id, Pageable pageable);
+
     /**
      * 根据用户ID和状态查找订单
      */
     List<Order> findByUserIdAndStatus(Long userId, Order.OrderStatus status);
 
     /**
-     * 根据商品名称模糊查询订单
+     * 自定义查询：按商品名称全文检索订单，按相关度排序
+     * <p>
+     * 使用 ngram 全文索引，{@code query} 为 BOOLEAN MODE 表达式，由调用方构造并转义用户输入。
+     * 每个关键词的长度不能小于 ngram_token_size，否则只匹配以该关键词开头的词元。
      */
-    List<Order> findByProductNameContainingIgnoreCase(String productName);
+    @Query(value = "SELECT * FROM orders WHERE MATCH(product_name) AGAINST(:query IN BOOLEAN MODE) " +
+                   "ORDER BY MATCH(product_name) AGAINST(:query IN BOOLEAN MODE) DESC, id DESC",
+           countQuery = "SELECT COUNT(*) FROM orders WHERE MATCH(product_name) AGAINST(:query IN BOOLEAN MODE)",
+           nativeQuery = true)
+    Page<Order> searchByProductName(@Param("query") String query, Pageable pageable);
 
     /**
-     * 根据价格范围查询订单
+     * 投影查询：根据价格范围查询订单
      */
-    List<Order> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
+    @Query(SUMMARY_SELECT + "WHERE o.price BETWEEN :minPrice AND :maxPrice")
+    List<OrderSummary> findSummariesByPriceBetween(@Param("minPrice") BigDecimal minPrice,
+                                                   @Param("maxPrice") BigDecimal maxPrice);
 
     /**
-     * 根据创建时间范围查询订单
+     * 投影查询：根据创建时间范围查询订单
      */
-    List<Order> findByCreatedAtBetween(LocalDateTime startTime, LocalDateTime endTime);
+    @Query(SUMMARY_SELECT + "WHERE o.createdAt BETWEEN :startTime AND :endTime")
+    List<OrderSummary> findSummariesByCreatedAtBetween(@Param("startTime") LocalDateTime startTime,
+                                                       @Param("endTime") LocalDateTime endTime);
 
     /**
      * 统计用户订单数量
@@ -83,16 +151,59 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT SUM(o.price * o.quantity) FROM Order o WHERE o.status = :status")
     BigDecimal calculateTotalAmountByStatus(@Param("status") Order.OrderStatus status);
 
+    /**
+     * 自定义查询：按状态汇总订单数量与金额
+     */
+    @Query("SELECT o.status, COUNT(o), SUM(o.price * o.quantity) FROM Order o GROUP BY o.status")
+    List<Object[]> summarizeByStatus();
+
     /**
      * 自定义查询：获取用户最近的订单
      */
     @Query("SELECT o FROM Order o WHERE o.userId = :userId ORDER BY o.createdAt DESC")
     List<Order> findRecentOrdersByUserId(@Param("userId") Long userId, Pageable pageable);
 
+    /**
+     * 自定义查询：按条件流式读取订单，用于导出
+     * <p>
+     * MySQL驱动仅在fetch size为Integer.MIN_VALUE时逐行流式读取，否则会一次性加载整个结果集。
+     * 调用方必须在只读事务中消费并关闭返回的Stream。
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE (:status IS NULL OR o.status = :status) " +
+           "AND (:userId IS NULL OR o.userId = :userId) " +
+           "AND (:startTime IS NULL OR o.createdAt >= :startTime) " +
+           "AND (:endTime IS NULL OR o.createdAt <= :endTime) " +
+           "ORDER BY o.id")
+    Stream<Order> streamForExport(@Param("status") Order.OrderStatus status,
+                                  @Param("userId") Long userId,
+                                  @Param("startTime") LocalDateTime startTime,
+                                  @Param("endTime") LocalDateTime endTime);
+
     /**
      * 自定义查询：获取热门商品
      */
     @Query("SELECT o.productName, SUM(o.quantity) as totalQuantity FROM Order o " +
            "GROUP BY o.productName ORDER BY totalQuantity DESC")
     List<Object[]> findPopularProducts(Pageable pageable);
+
+    /**
+     * 自定义查询：获取指定时间之后创建的订单中的热门商品
+     */
+    @Query("SELECT o.productName, SUM(o.quantity) as totalQuantity FROM Order o " +
+           "WHERE o.createdAt >= :since GROUP BY o.productName ORDER BY totalQuantity DESC")
+    List<Object[]> findPopularProductsSince(@Param("since") LocalDateTime since, Pageable pageable);
+
+    /**
+     * 原生查询：按商品和5分钟时间片汇总指定时间之后创建的订单数量，用于重建热门商品的时间窗口分桶
+     * <p>
+     * 每组返回组内最早的 created_at（与实体读取相同的时区换算），由调用方换算所属分桶
+     */
+    @Query(value = "SELECT product_name, MIN(created_at), SUM(quantity) FROM orders WHERE created_at >= :since " +
+                   "GROUP BY product_name, DATE(created_at), HOUR(created_at), FLOOR(MINUTE(created_at) / 5)",
+           nativeQuery = true)
+    List<Object[]> sumQuantityByProductPerFiveMinutesSince(@Param("since") LocalDateTime since);
 }
\ No newline at end of file
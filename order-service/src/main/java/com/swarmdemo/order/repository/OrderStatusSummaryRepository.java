@@ -0,0 +1,34 @@
+package com.swarmdemo.order.repository;
+
+import com.swarmdemo.order.entity.Order;
+import com.swarmdemo.order.entity.OrderStatusSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+/**
+ * 订单状态汇总数据访问接口
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Repository
+public interface OrderStatusSummaryRepository extends JpaRepository<OrderStatusSummary, Order.OrderStatus> {
+
+    /**
+     * 在数据库中原子地累加指定状态的订单数量与金额，汇总行不存在时插入，多个实例并发写入时结果仍然一致
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_status_summary (status, order_count, total_amount, updated_at) " +
+                   "VALUES (:status, :countDelta, :amountDelta, CURRENT_TIMESTAMP) " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+                   "total_amount = total_amount + VALUES(total_amount), updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int applyDelta(@Param("status") String status,
+                   @Param("countDelta") long countDelta,
+                   @Param("amountDelta") BigDecimal amountDelta);
+}
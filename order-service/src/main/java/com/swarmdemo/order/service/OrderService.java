@@ -1,10 +1,16 @@
 package com.swarmdemo.order.service;
 
 import com.swarmdemo.order.entity.Order;
+import com.swarmdemo.order.vo.BulkOrderResult;
+import com.swarmdemo.order.vo.CursorPage;
+import com.swarmdemo.order.vo.OrderSummary;
 import com.swarmdemo.order.vo.OrderVo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,6 +29,11 @@ public interface OrderService {
      */
     Order createOrder(Order order);
 
+    /**
+     * 批量创建订单，逐条返回处理结果
+     */
+    BulkOrderResult createOrders(List<Order> orders);
+
     /**
      * 根据ID查找订单
      */
@@ -36,7 +47,7 @@ public interface OrderService {
     /**
      * 获取所有订单
      */
-    List<Order> findAllOrders();
+    List<OrderSummary> findAllOrders();
 
     /**
      * 获取所有订单详情（包含用户信息）
@@ -53,10 +64,15 @@ public interface OrderService {
      */
     Page<OrderVo> findOrderVos(Pageable pageable);
 
+    /**
+     * 游标分页查询订单
+     */
+    CursorPage<Order> findOrdersByCursor(String cursor, int size, boolean includeTotal);
+
     /**
      * 根据用户ID查找订单
      */
-    List<Order> findOrdersByUserId(Long userId);
+    List<OrderSummary> findOrdersByUserId(Long userId);
 
     /**
      * 根据用户ID查找订单详情
@@ -73,16 +89,26 @@ public interface OrderService {
      */
     Page<OrderVo> findOrderVosByUserId(Long userId, Pageable pageable);
 
+    /**
+     * 游标分页查询用户订单
+     */
+    CursorPage<Order> findOrdersByUserIdAndCursor(Long userId, String cursor, int size, boolean includeTotal);
+
     /**
      * 根据状态查找订单
      */
-    List<Order> findOrdersByStatus(Order.OrderStatus status);
+    List<OrderSummary> findOrdersByStatus(Order.OrderStatus status);
 
     /**
      * 分页查询指定状态的订单
      */
     Page<Order> findOrdersByStatus(Order.OrderStatus status, Pageable pageable);
 
+    /**
+     * 游标分页查询指定状态的订单
+     */
+    CursorPage<Order> findOrdersByStatusAndCursor(Order.OrderStatus status, String cursor, int size, boolean includeTotal);
+
     /**
      * 更新订单
      */
@@ -99,19 +125,25 @@ public interface OrderService {
     void deleteOrder(Long id);
 
     /**
-     * 根据商品名称搜索订单
+     * 根据商品名称搜索订单，多个关键词之间为“且”关系，每个关键词按前缀匹配，结果按相关度排序
      */
-    List<Order> searchOrdersByProductName(String productName);
+    Page<Order> searchOrdersByProductName(String productName, Pageable pageable);
 
     /**
      * 根据价格范围查询订单
      */
-    List<Order> findOrdersByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
+    List<OrderSummary> findOrdersByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
 
     /**
      * 根据时间范围查询订单
      */
-    List<Order> findOrdersByDateRange(LocalDateTime startTime, LocalDateTime endTime);
+    List<OrderSummary> findOrdersByDateRange(LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 按条件流式导出订单（ndjson 或 csv），内存占用与订单数量无关
+     */
+    void exportOrders(Order.OrderStatus status, Long userId, LocalDateTime startTime, LocalDateTime endTime,
+                      String format, OutputStream outputStream) throws IOException;
 
     /**
      * 获取订单统计信息
@@ -128,16 +160,26 @@ public interface OrderService {
      */
     List<PopularProduct> getPopularProducts(int limit);
 
+    /**
+     * 获取指定时间窗口（all/hour/day/week）内的热门商品
+     */
+    List<PopularProduct> getPopularProducts(int limit, String window);
+
     /**
      * 订单统计信息内部类
      */
-    class OrderStatistics {
+    class OrderStatistics implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
         private Long totalOrders;
         private Long completedOrders;
         private Long pendingOrders;
         private BigDecimal totalRevenue;
         private BigDecimal completedRevenue;
 
+        public OrderStatistics() {}
+
         public OrderStatistics(Long totalOrders, Long completedOrders, Long pendingOrders, 
                              BigDecimal totalRevenue, BigDecimal completedRevenue) {
             this.totalOrders = totalOrders;
@@ -1,34 +1,65 @@
 package com.swarmdemo.order.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.swarmdemo.order.dto.UserDto;
 import com.swarmdemo.order.entity.Order;
 import com.swarmdemo.order.exception.ResourceNotFoundException;
 import com.swarmdemo.order.exception.BusinessException;
-import com.swarmdemo.order.feign.UserServiceClient;
+import com.swarmdemo.order.feign.UserResolver;
 import com.swarmdemo.order.repository.OrderRepository;
 import com.swarmdemo.order.service.OrderService;
+import com.swarmdemo.order.statistics.OrderStatisticsAggregate;
+import com.swarmdemo.order.statistics.PopularProductRanking;
+import com.swarmdemo.order.vo.BulkOrderResult;
+import com.swarmdemo.order.vo.CursorPage;
+import com.swarmdemo.order.vo.OrderSummary;
 import com.swarmdemo.order.vo.OrderVo;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.Predicate;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 订单服务实现类
+ * <p>
+ * 查询方法标记为只读事务，启用读写分离时路由到只读副本；按ID读取常紧跟在写入之后，仍在主库执行，保证读到自己的写入。
+ * 只读事务中Hibernate会话使用MANUAL刷新模式且加载的实体不保留快照；不分页的列表查询直接返回 {@link OrderSummary} 投影。
  * 
  * @author islanderrrrr
  * @since 2025-08-25
@@ -39,19 +70,63 @@ public class OrderServiceImpl implements OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderServiceImpl.class);
 
+    /**
+     * 单次批量创建订单的最大数量
+     */
+    private static final int MAX_BULK_SIZE = 5000;
+
+    /**
+     * 热门商品查询的最大返回数量
+     */
+    private static final int MAX_POPULAR_PRODUCTS_LIMIT = 100;
+
+    /**
+     * 批量写入时每次刷新的订单数量，与 hibernate.jdbc.batch_size 保持一致
+     */
+    private static final int BULK_FLUSH_SIZE = 500;
+
+    private static final String CSV_HEADER =
+            "id,userId,productName,quantity,price,totalAmount,status,createdAt,updatedAt\n";
+
+    /**
+     * 全文检索 BOOLEAN MODE 下的运算符，用户输入中出现时按空白处理
+     */
+    private static final Pattern SEARCH_OPERATORS = Pattern.compile("[+\\-<>()~*\"@]");
+
+    /**
+     * 全文索引的 ngram_token_size，短于该长度的关键词无法通过全文索引按子串匹配
+     */
+    private static final int NGRAM_TOKEN_SIZE = 2;
+
     @Autowired
     private OrderRepository orderRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserResolver userResolver;
+
+    @Autowired
+    private OrderStatisticsAggregate orderStatisticsAggregate;
+
+    @Autowired
+    private PopularProductRanking popularProductRanking;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
+    @CacheEvict(value = "ordersList", allEntries = true)
     public Order createOrder(Order order) {
         logger.info("创建订单，用户ID: {}, 商品: {}", order.getUserId(), order.getProductName());
         
         // 验证用户是否存在
         try {
-            UserDto user = getUserWithCircuitBreaker(order.getUserId());
+            UserDto user = getUser(order.getUserId());
             if (user == null || "未知用户".equals(user.getName())) {
                 throw new BusinessException("用户不存在，无法创建订单");
             }
@@ -60,17 +135,82 @@ public class OrderServiceImpl implements OrderService {
         }
 
         Order savedOrder = orderRepository.save(order);
+        orderStatisticsAggregate.recordCreated(savedOrder);
+        popularProductRanking.recordCreated(savedOrder);
         logger.info("订单创建成功，ID: {}", savedOrder.getId());
         return savedOrder;
     }
 
-    @CircuitBreaker(name = "user-service", fallbackMethod = "getUserFallback")
-    private UserDto getUserWithCircuitBreaker(Long userId) {
-        return userServiceClient.getUserById(userId);
+    @Override
+    @CacheEvict(value = "ordersList", allEntries = true)
+    public BulkOrderResult createOrders(List<Order> orders) {
+        logger.info("批量创建订单，数量: {}", orders.size());
+        if (orders.size() > MAX_BULK_SIZE) {
+            throw new BusinessException("单次批量创建订单数量不能超过" + MAX_BULK_SIZE);
+        }
+
+        BulkOrderResult result = new BulkOrderResult(orders.size());
+        Map<Integer, Order> validOrders = new LinkedHashMap<>();
+        for (int index = 0; index < orders.size(); index++) {
+            Order order = orders.get(index);
+            if (order == null) {
+                result.addFailure(index, "订单数据为空");
+                continue;
+            }
+            Set<ConstraintViolation<Order>> violations = validator.validate(order);
+            if (!violations.isEmpty()) {
+                result.addFailure(index, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            validOrders.put(index, order);
+        }
+
+        // 对去重后的用户ID只做一次批量校验
+        Map<Long, UserDto> users = userResolver.resolveAll(validOrders.values().stream()
+                .map(Order::getUserId)
+                .collect(Collectors.toList()));
+
+        List<Integer> savedIndexes = new ArrayList<>(validOrders.size());
+        List<Order> ordersToSave = new ArrayList<>(validOrders.size());
+        validOrders.forEach((index, order) -> {
+            if (!users.containsKey(order.getUserId())) {
+                result.addFailure(index, "用户不存在或用户服务不可用，用户ID: " + order.getUserId());
+                return;
+            }
+            order.setId(null);
+            savedIndexes.add(index);
+            ordersToSave.add(order);
+        });
+
+        // 分段写入并清理持久化上下文，配合 hibernate.jdbc.batch_size 使用JDBC批量插入
+        for (int from = 0; from < ordersToSave.size(); from += BULK_FLUSH_SIZE) {
+            orderRepository.saveAll(ordersToSave.subList(from, Math.min(from + BULK_FLUSH_SIZE, ordersToSave.size())));
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        for (int i = 0; i < ordersToSave.size(); i++) {
+            result.addSuccess(savedIndexes.get(i), ordersToSave.get(i).getId());
+        }
+        result.getItems().sort(Comparator.comparingInt(BulkOrderResult.Item::getIndex));
+
+        orderStatisticsAggregate.recordCreatedAll(ordersToSave);
+        popularProductRanking.recordCreatedAll(ordersToSave);
+        logger.info("批量创建订单完成，成功: {}, 失败: {}", result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    /**
+     * 获取用户信息，熔断、超时与舱壁隔离由 {@link com.swarmdemo.order.feign.ResilientUserClient} 负责
+     */
+    private UserDto getUser(Long userId) {
+        UserDto user = userResolver.resolve(userId);
+        return user != null ? user : createFallbackUser(userId);
     }
 
-    private UserDto getUserFallback(Long userId, Exception ex) {
-        logger.warn("用户服务调用失败，使用降级方案，用户ID: {}, 异常: {}", userId, ex.getMessage());
+    private UserDto createFallbackUser(Long userId) {
         UserDto fallbackUser = new UserDto();
         fallbackUser.setId(userId);
         fallbackUser.setName("未知用户");
@@ -79,6 +219,32 @@ public class OrderServiceImpl implements OrderService {
         return fallbackUser;
     }
 
+    /**
+     * 批量获取用户信息，查询失败或不存在的用户使用降级数据
+     */
+    private Map<Long, UserDto> getUsersByIds(Collection<Long> userIds) {
+        Map<Long, UserDto> users = userResolver.resolveAll(userIds);
+        for (Long userId : userIds) {
+            if (userId != null) {
+                users.computeIfAbsent(userId, this::createFallbackUser);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * 组装订单详情：一页内的不同用户同时查询，整页等待时间受解析器期限限制，超时的用户使用降级数据
+     */
+    private List<OrderVo> toOrderVos(List<Order> orders) {
+        Map<Long, UserDto> users = getUsersByIds(orders.stream()
+                .map(Order::getUserId)
+                .collect(Collectors.toSet()));
+
+        return orders.stream()
+                .map(order -> new OrderVo(order, users.get(order.getUserId())))
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Cacheable(value = "orders", key = "#id")
     public Optional<Order> findById(Long id) {
@@ -93,7 +259,7 @@ public class OrderServiceImpl implements OrderService {
         
         if (orderOpt.isPresent()) {
             Order order = orderOpt.get();
-            UserDto user = getUserWithCircuitBreaker(order.getUserId());
+            UserDto user = getUser(order.getUserId());
             return Optional.of(new OrderVo(order, user));
         }
         
@@ -101,56 +267,66 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Cacheable(value = "ordersList", key = "'all'")
-    public List<Order> findAllOrders() {
+    @Cacheable(value = "ordersList", key = "'summaries'")
+    @Transactional(readOnly = true)
+    public List<OrderSummary> findAllOrders() {
         logger.info("获取所有订单");
-        return orderRepository.findAll();
+        return orderRepository.findAllSummaries();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderVo> findAllOrderVos() {
         logger.info("获取所有订单详情");
         List<Order> orders = orderRepository.findAll();
-        return orders.stream()
-                .map(order -> {
-                    UserDto user = getUserWithCircuitBreaker(order.getUserId());
-                    return new OrderVo(order, user);
-                })
-                .collect(Collectors.toList());
+        return toOrderVos(orders);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Order> findOrders(Pageable pageable) {
         logger.info("分页查询订单，页码: {}, 大小: {}", pageable.getPageNumber(), pageable.getPageSize());
         return orderRepository.findAll(pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<OrderVo> findOrderVos(Pageable pageable) {
         logger.info("分页查询订单详情，页码: {}, 大小: {}", pageable.getPageNumber(), pageable.getPageSize());
         Page<Order> orders = orderRepository.findAll(pageable);
         
-        List<OrderVo> orderVos = orders.getContent().stream()
-                .map(order -> {
-                    UserDto user = getUserWithCircuitBreaker(order.getUserId());
-                    return new OrderVo(order, user);
-                })
-                .collect(Collectors.toList());
+        List<OrderVo> orderVos = toOrderVos(orders.getContent());
         
         return new PageImpl<>(orderVos, pageable, orders.getTotalElements());
     }
 
     @Override
-    public List<Order> findOrdersByUserId(Long userId) {
+    @Transactional(readOnly = true)
+    public CursorPage<Order> findOrdersByCursor(String cursor, int size, boolean includeTotal) {
+        logger.info("游标分页查询订单，游标: {}, 大小: {}", cursor, size);
+        Long cursorId = CursorPage.decodeCursor(cursor);
+        int pageSize = CursorPage.normalizeSize(size);
+        Pageable limit = CursorPage.limitOf(pageSize);
+
+        List<Order> orders = cursorId == null
+                ? orderRepository.findAllByOrderByIdDesc(limit)
+                : orderRepository.findByIdLessThanOrderByIdDesc(cursorId, limit);
+        return CursorPage.of(orders, pageSize, Order::getId, includeTotal ? orderRepository.count() : null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderSummary> findOrdersByUserId(Long userId) {
         logger.info("查找用户订单，用户ID: {}", userId);
-        return orderRepository.findByUserId(userId);
+        return orderRepository.findSummariesByUserId(userId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderVo> findOrderVosByUserId(Long userId) {
         logger.info("查找用户订单详情，用户ID: {}", userId);
         List<Order> orders = orderRepository.findByUserId(userId);
-        UserDto user = getUserWithCircuitBreaker(userId);
+        UserDto user = getUser(userId);
         
         return orders.stream()
                 .map(order -> new OrderVo(order, user))
@@ -158,6 +334,7 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Order> findOrdersByUserId(Long userId, Pageable pageable) {
         logger.info("分页查询用户订单，用户ID: {}, 页码: {}, 大小: {}", 
                    userId, pageable.getPageNumber(), pageable.getPageSize());
@@ -165,11 +342,12 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<OrderVo> findOrderVosByUserId(Long userId, Pageable pageable) {
         logger.info("分页查询用户订单详情，用户ID: {}, 页码: {}, 大小: {}", 
                    userId, pageable.getPageNumber(), pageable.getPageSize());
         Page<Order> orders = orderRepository.findByUserId(userId, pageable);
-        UserDto user = getUserWithCircuitBreaker(userId);
+        UserDto user = getUser(userId);
         
         List<OrderVo> orderVos = orders.getContent().stream()
                 .map(order -> new OrderVo(order, user))
@@ -179,12 +357,29 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public List<Order> findOrdersByStatus(Order.OrderStatus status) {
+    @Transactional(readOnly = true)
+    public CursorPage<Order> findOrdersByUserIdAndCursor(Long userId, String cursor, int size, boolean includeTotal) {
+        logger.info("游标分页查询用户订单，用户ID: {}, 游标: {}, 大小: {}", userId, cursor, size);
+        Long cursorId = CursorPage.decodeCursor(cursor);
+        int pageSize = CursorPage.normalizeSize(size);
+        Pageable limit = CursorPage.limitOf(pageSize);
+
+        List<Order> orders = cursorId == null
+                ? orderRepository.findByUserIdOrderByIdDesc(userId, limit)
+                : orderRepository.findByUserIdAndIdLessThanOrderByIdDesc(userId, cursorId, limit);
+        return CursorPage.of(orders, pageSize, Order::getId,
+                includeTotal ? orderRepository.countByUserId(userId) : null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderSummary> findOrdersByStatus(Order.OrderStatus status) {
         logger.info("根据状态查找订单: {}", status);
-        return orderRepository.findByStatus(status);
+        return orderRepository.findSummariesByStatus(status);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Order> findOrdersByStatus(Order.OrderStatus status, Pageable pageable) {
         logger.info("分页查询指定状态的订单: {}, 页码: {}, 大小: {}", 
                    status, pageable.getPageNumber(), pageable.getPageSize());
@@ -192,87 +387,215 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @CacheEvict(value = {"orders", "ordersList"}, key = "#id")
+    @Transactional(readOnly = true)
+    public CursorPage<Order> findOrdersByStatusAndCursor(Order.OrderStatus status, String cursor, int size,
+                                                         boolean includeTotal) {
+        logger.info("游标分页查询指定状态的订单: {}, 游标: {}, 大小: {}", status, cursor, size);
+        Long cursorId = CursorPage.decodeCursor(cursor);
+        int pageSize = CursorPage.normalizeSize(size);
+        Pageable limit = CursorPage.limitOf(pageSize);
+
+        List<Order> orders = cursorId == null
+                ? orderRepository.findByStatusOrderByIdDesc(status, limit)
+                : orderRepository.findByStatusAndIdLessThanOrderByIdDesc(status, cursorId, limit);
+        return CursorPage.of(orders, pageSize, Order::getId,
+                includeTotal ? orderRepository.countByStatus(status) : null);
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = "orders", key = "#id"),
+            @CacheEvict(value = "ordersList", allEntries = true)
+    })
     public Order updateOrder(Long id, Order order) {
         logger.info("更新订单，ID: {}", id);
         
         Order existingOrder = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("订单不存在，ID: " + id));
 
+        Order.OrderStatus oldStatus = existingOrder.getStatus();
+        BigDecimal oldAmount = existingOrder.getTotalAmount();
+        String oldProductName = existingOrder.getProductName();
+        Integer oldQuantity = existingOrder.getQuantity();
+
         existingOrder.setProductName(order.getProductName());
         existingOrder.setQuantity(order.getQuantity());
         existingOrder.setPrice(order.getPrice());
         existingOrder.setStatus(order.getStatus());
 
         Order updatedOrder = orderRepository.save(existingOrder);
+        orderStatisticsAggregate.recordChanged(oldStatus, oldAmount, updatedOrder);
+        popularProductRanking.recordChanged(oldProductName, oldQuantity, updatedOrder);
         logger.info("订单更新成功，ID: {}", updatedOrder.getId());
         return updatedOrder;
     }
 
     @Override
-    @CacheEvict(value = {"orders", "ordersList"}, key = "#id")
+    @Caching(evict = {
+            @CacheEvict(value = "orders", key = "#id"),
+            @CacheEvict(value = "ordersList", allEntries = true)
+    })
     public Order updateOrderStatus(Long id, Order.OrderStatus status) {
         logger.info("更新订单状态，ID: {}, 状态: {}", id, status);
         
         Order existingOrder = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("订单不存在，ID: " + id));
 
+        Order.OrderStatus oldStatus = existingOrder.getStatus();
+        BigDecimal oldAmount = existingOrder.getTotalAmount();
+
         existingOrder.setStatus(status);
         Order updatedOrder = orderRepository.save(existingOrder);
+        orderStatisticsAggregate.recordChanged(oldStatus, oldAmount, updatedOrder);
         logger.info("订单状态更新成功，ID: {}, 新状态: {}", updatedOrder.getId(), status);
         return updatedOrder;
     }
 
     @Override
-    @CacheEvict(value = {"orders", "ordersList"}, key = "#id")
+    @Caching(evict = {
+            @CacheEvict(value = "orders", key = "#id"),
+            @CacheEvict(value = "ordersList", allEntries = true)
+    })
     public void deleteOrder(Long id) {
         logger.info("删除订单，ID: {}", id);
         
-        if (!orderRepository.existsById(id)) {
-            throw new ResourceNotFoundException("订单不存在，ID: " + id);
-        }
+        Order existingOrder = orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("订单不存在，ID: " + id));
 
-        orderRepository.deleteById(id);
+        orderRepository.delete(existingOrder);
+        orderStatisticsAggregate.recordDeleted(existingOrder);
+        popularProductRanking.recordDeleted(existingOrder);
         logger.info("订单删除成功，ID: {}", id);
     }
 
     @Override
-    public List<Order> searchOrdersByProductName(String productName) {
-        logger.info("根据商品名称搜索订单: {}", productName);
-        return orderRepository.findByProductNameContainingIgnoreCase(productName);
+    @Transactional(readOnly = true)
+    public Page<Order> searchOrdersByProductName(String productName, Pageable pageable) {
+        logger.info("根据商品名称搜索订单: {}, 页码: {}, 大小: {}",
+                   productName, pageable.getPageNumber(), pageable.getPageSize());
+        List<String> terms = toSearchTerms(productName);
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        if (terms.stream().anyMatch(term -> term.codePointCount(0, term.length()) < NGRAM_TOKEN_SIZE)) {
+            // 单字关键词在全文索引中只能匹配以该字开头的词元（“机”搜不到“手机”），改用LIKE逐行匹配
+            return orderRepository.findAll(productNameContainsAll(terms),
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "id")));
+        }
+        return orderRepository.searchByProductName(toBooleanQuery(terms),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+
+    /**
+     * 去掉全文检索运算符后按空白拆分关键词
+     */
+    private List<String> toSearchTerms(String productName) {
+        List<String> terms = new ArrayList<>();
+        for (String term : SEARCH_OPERATORS.matcher(productName).replaceAll(" ").trim().split("\\s+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * 将关键词转换为全文检索的 BOOLEAN MODE 表达式，每个关键词加 {@code +} 必须出现。
+     * ngram解析器把长度不小于 ngram_token_size 的关键词拆成连续的词元并按短语匹配，即商品名包含该子串
+     */
+    private String toBooleanQuery(List<String> terms) {
+        StringBuilder query = new StringBuilder();
+        for (String term : terms) {
+            query.append(query.length() == 0 ? "" : " ").append('+').append(term);
+        }
+        return query.toString();
+    }
+
+    /**
+     * 商品名同时包含全部关键词（LIKE子串匹配，转义通配符）
+     */
+    private static Specification<Order> productNameContainsAll(List<String> terms) {
+        return (root, criteriaQuery, criteriaBuilder) -> criteriaBuilder.and(terms.stream()
+                .map(term -> criteriaBuilder.like(root.get("productName"),
+                        "%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%", '\\'))
+                .toArray(Predicate[]::new));
     }
 
     @Override
-    public List<Order> findOrdersByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+    @Transactional(readOnly = true)
+    public List<OrderSummary> findOrdersByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
         logger.info("根据价格范围查询订单: {} - {}", minPrice, maxPrice);
-        return orderRepository.findByPriceBetween(minPrice, maxPrice);
+        return orderRepository.findSummariesByPriceBetween(minPrice, maxPrice);
     }
 
     @Override
-    public List<Order> findOrdersByDateRange(LocalDateTime startTime, LocalDateTime endTime) {
+    @Transactional(readOnly = true)
+    public List<OrderSummary> findOrdersByDateRange(LocalDateTime startTime, LocalDateTime endTime) {
         logger.info("根据时间范围查询订单: {} - {}", startTime, endTime);
-        return orderRepository.findByCreatedAtBetween(startTime, endTime);
+        return orderRepository.findSummariesByCreatedAtBetween(startTime, endTime);
     }
 
     @Override
-    @Cacheable(value = "orderStatistics", key = "'stats'")
+    @Transactional(readOnly = true)
+    public void exportOrders(Order.OrderStatus status, Long userId, LocalDateTime startTime, LocalDateTime endTime,
+                             String format, OutputStream outputStream) throws IOException {
+        logger.info("导出订单，格式: {}, 状态: {}, 用户ID: {}, 时间范围: {} - {}", format, status, userId, startTime, endTime);
+        boolean csv = "csv".equalsIgnoreCase(format);
+        ObjectWriter jsonWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        long count = 0;
+        BufferedOutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+        try (Stream<Order> orders = orderRepository.streamForExport(status, userId, startTime, endTime)) {
+            if (csv) {
+                out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            }
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                Order order = iterator.next();
+                if (csv) {
+                    out.write(toCsvLine(order).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    jsonWriter.writeValue(out, order);
+                    out.write('\n');
+                }
+                // 导出过程中不保留已写出的实体，避免持久化上下文随行数增长
+                entityManager.detach(order);
+                count++;
+            }
+        }
+        out.flush();
+        logger.info("订单导出完成，数量: {}", count);
+    }
+
+    private String toCsvLine(Order order) {
+        return order.getId() + "," + order.getUserId() + "," + csvEscape(order.getProductName()) + ","
+                + order.getQuantity() + "," + order.getPrice() + "," + order.getTotalAmount() + ","
+                + order.getStatus() + "," + csvValue(order.getCreatedAt()) + "," + csvValue(order.getUpdatedAt()) + "\n";
+    }
+
+    private String csvValue(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private String csvEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public OrderStatistics getOrderStatistics() {
         logger.info("获取订单统计信息");
-        
-        Long totalOrders = orderRepository.count();
-        Long completedOrders = orderRepository.countByStatus(Order.OrderStatus.COMPLETED);
-        Long pendingOrders = totalOrders - completedOrders;
-        
-        BigDecimal totalRevenue = orderRepository.calculateTotalAmountByStatus(null);
-        BigDecimal completedRevenue = orderRepository.calculateTotalAmountByStatus(Order.OrderStatus.COMPLETED);
-        
-        if (totalRevenue == null) totalRevenue = BigDecimal.ZERO;
-        if (completedRevenue == null) completedRevenue = BigDecimal.ZERO;
-
-        return new OrderStatistics(totalOrders, completedOrders, pendingOrders, totalRevenue, completedRevenue);
+        return orderStatisticsAggregate.snapshot();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserOrderStatistics getUserOrderStatistics(Long userId) {
         logger.info("获取用户订单统计信息，用户ID: {}", userId);
         
@@ -285,11 +608,37 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<PopularProduct> getPopularProducts(int limit) {
-        logger.info("获取热门商品，限制: {}", limit);
-        
+        return getPopularProducts(limit, PopularProductRanking.WINDOW_ALL);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PopularProduct> getPopularProducts(int limit, String window) {
+        logger.info("获取热门商品，限制: {}, 时间窗口: {}", limit, window);
+        if (limit < 1) {
+            throw new BusinessException("返回数量必须大于0");
+        }
+        limit = Math.min(limit, MAX_POPULAR_PRODUCTS_LIMIT);
+
+        LocalDateTime since;
+        try {
+            since = PopularProductRanking.windowStart(window);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(e.getMessage());
+        }
+
+        try {
+            return popularProductRanking.top(limit, window);
+        } catch (Exception e) {
+            logger.warn("热门商品排行不可用，改为查询数据库: {}", e.getMessage());
+        }
+
         Pageable pageable = PageRequest.of(0, limit);
-        List<Object[]> results = orderRepository.findPopularProducts(pageable);
+        List<Object[]> results = since == null
+                ? orderRepository.findPopularProducts(pageable)
+                : orderRepository.findPopularProductsSince(since, pageable);
         
         return results.stream()
                 .map(result -> new PopularProduct((String) result[0], ((Number) result[1]).longValue()))
@@ -0,0 +1,248 @@
+package com.swarmdemo.order.statistics;
+
+import com.swarmdemo.order.entity.Order;
+import com.swarmdemo.order.entity.OrderStatusSummary;
+import com.swarmdemo.order.repository.OrderRepository;
+import com.swarmdemo.order.repository.OrderStatusSummaryRepository;
+import com.swarmdemo.order.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 订单统计聚合
+ * <p>
+ * 按状态维护订单数量与金额的汇总表，在订单写操作所在事务内增量更新，
+ * 使统计查询只需读取各状态的汇总行。定时任务从订单表统计实际值并报告偏差，按差值修正汇总行，
+ * 多个实例通过Redis锁保证每个校对周期只有一个实例执行。
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+public class OrderStatisticsAggregate {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatisticsAggregate.class);
+
+    @Autowired
+    private OrderStatusSummaryRepository summaryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 校对锁的持有时间，略短于校对间隔；校对成功后不主动释放，同一周期内其他实例跳过
+     */
+    @Value("${order.statistics.reconcile-lock-ttl:PT9M}")
+    private Duration reconcileLockTtl;
+
+    private static final String RECONCILE_LOCK_KEY = "order:statistics:reconcile-lock";
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * 校对读取使用的只读事务：可重复读隔离级别下汇总表与订单表的读取共用同一个一致性视图
+     */
+    private TransactionTemplate snapshotTemplate;
+
+    @PostConstruct
+    public void init() {
+        snapshotTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshotTemplate.setReadOnly(true);
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * 记录新建订单
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Order order) {
+        applyDelta(order.getStatus(), 1, order.getTotalAmount());
+    }
+
+    /**
+     * 记录批量新建的订单，按状态合并后每个状态只更新一次
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreatedAll(List<Order> orders) {
+        Map<Order.OrderStatus, OrderStatusSummary> deltas = new EnumMap<>(Order.OrderStatus.class);
+        for (Order order : orders) {
+            if (order.getStatus() == null) {
+                continue;
+            }
+            OrderStatusSummary delta = deltas.computeIfAbsent(order.getStatus(),
+                    status -> new OrderStatusSummary(status, 0L, BigDecimal.ZERO));
+            delta.setOrderCount(delta.getOrderCount() + 1);
+            delta.setTotalAmount(delta.getTotalAmount().add(order.getTotalAmount()));
+        }
+        deltas.values().forEach(delta ->
+                applyDelta(delta.getStatus(), delta.getOrderCount(), delta.getTotalAmount()));
+    }
+
+    /**
+     * 记录订单状态或金额变更
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanged(Order.OrderStatus oldStatus, BigDecimal oldAmount, Order order) {
+        if (oldStatus == order.getStatus() && oldAmount.compareTo(order.getTotalAmount()) == 0) {
+            return;
+        }
+        applyDelta(oldStatus, -1, oldAmount.negate());
+        applyDelta(order.getStatus(), 1, order.getTotalAmount());
+    }
+
+    /**
+     * 记录删除订单
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Order order) {
+        applyDelta(order.getStatus(), -1, order.getTotalAmount().negate());
+    }
+
+    /**
+     * 读取当前统计信息
+     */
+    @Transactional(readOnly = true)
+    public OrderService.OrderStatistics snapshot() {
+        long totalOrders = 0;
+        long completedOrders = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        BigDecimal completedRevenue = BigDecimal.ZERO;
+
+        for (OrderStatusSummary summary : summaryRepository.findAll()) {
+            totalOrders += summary.getOrderCount();
+            totalRevenue = totalRevenue.add(summary.getTotalAmount());
+            if (summary.getStatus() == Order.OrderStatus.COMPLETED) {
+                completedOrders = summary.getOrderCount();
+                completedRevenue = summary.getTotalAmount();
+            }
+        }
+
+        return new OrderService.OrderStatistics(totalOrders, completedOrders, totalOrders - completedOrders,
+                totalRevenue, completedRevenue);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.warn("初始化订单统计校对失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从订单表统计实际值，发现偏差时记录日志与指标并修正；未取得校对锁时跳过本次校对
+     */
+    @Scheduled(fixedDelayString = "${order.statistics.reconcile-interval:PT10M}",
+               initialDelayString = "${order.statistics.reconcile-interval:PT10M}")
+    public void reconcile() {
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(RECONCILE_LOCK_KEY, instanceId, reconcileLockTtl);
+        if (!Boolean.TRUE.equals(acquired)) {
+            logger.debug("订单统计校对已由其他实例执行，跳过");
+            return;
+        }
+        try {
+            Map<Order.OrderStatus, OrderStatusSummary> drifts = snapshotTemplate.execute(status -> computeDrifts());
+            if (drifts != null && !drifts.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> drifts.values().forEach(drift ->
+                        applyDelta(drift.getStatus(), drift.getOrderCount(), drift.getTotalAmount())));
+            }
+            logger.info("订单统计校对完成，偏差状态数: {}", drifts != null ? drifts.size() : 0);
+        } catch (RuntimeException e) {
+            // 校对失败时释放锁，让其他实例在下个周期重试
+            redisTemplate.delete(RECONCILE_LOCK_KEY);
+            throw e;
+        }
+    }
+
+    /**
+     * 在同一个一致性视图中读取汇总行并统计订单表，返回各状态的偏差（实际值减汇总值）
+     * <p>
+     * 汇总行与订单在同一事务中修改，同一视图内两者互相一致，因此偏差只来自丢失的增量，与并发写入无关。
+     * 读取不加锁，订单写入不会阻塞在全表统计之后；偏差随后按差值累加，不会覆盖校对期间提交的增量。
+     * 只读事务可能路由到从库，从库按事务回放，视图同样一致。
+     */
+    private Map<Order.OrderStatus, OrderStatusSummary> computeDrifts() {
+        Map<Order.OrderStatus, OrderStatusSummary> stored = new EnumMap<>(Order.OrderStatus.class);
+        summaryRepository.findAll().forEach(summary -> stored.put(summary.getStatus(), summary));
+
+        Map<Order.OrderStatus, OrderStatusSummary> actual = new EnumMap<>(Order.OrderStatus.class);
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            actual.put(status, new OrderStatusSummary(status, 0L, BigDecimal.ZERO));
+        }
+        List<Object[]> rows = orderRepository.summarizeByStatus();
+        for (Object[] row : rows) {
+            if (row[0] == null) {
+                continue;
+            }
+            OrderStatusSummary summary = actual.get((Order.OrderStatus) row[0]);
+            summary.setOrderCount(((Number) row[1]).longValue());
+            summary.setTotalAmount(row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO);
+        }
+
+        Map<Order.OrderStatus, OrderStatusSummary> drifts = new EnumMap<>(Order.OrderStatus.class);
+        for (OrderStatusSummary expected : actual.values()) {
+            OrderStatusSummary current = stored.get(expected.getStatus());
+            long storedCount = current != null ? current.getOrderCount() : 0L;
+            BigDecimal storedAmount = current != null ? current.getTotalAmount() : BigDecimal.ZERO;
+            long countDrift = expected.getOrderCount() - storedCount;
+            BigDecimal amountDrift = expected.getTotalAmount().subtract(storedAmount);
+            if (countDrift == 0 && amountDrift.signum() == 0) {
+                continue;
+            }
+            if (current != null) {
+                logger.warn("订单统计出现偏差，状态: {}, 汇总: {}/{}, 实际: {}/{}",
+                        expected.getStatus(), storedCount, storedAmount,
+                        expected.getOrderCount(), expected.getTotalAmount());
+                driftCounter(expected.getStatus()).increment();
+            }
+            drifts.put(expected.getStatus(), new OrderStatusSummary(expected.getStatus(), countDrift, amountDrift));
+        }
+        return drifts;
+    }
+
+    private void applyDelta(Order.OrderStatus status, long countDelta, BigDecimal amountDelta) {
+        if (status == null) {
+            return;
+        }
+        summaryRepository.applyDelta(status.name(), countDelta, amountDelta);
+    }
+
+    private Counter driftCounter(Order.OrderStatus status) {
+        return Counter.builder("order.statistics.drift")
+                .description("Order status summaries corrected by reconciliation")
+                .tag("status", status.name())
+                .register(meterRegistry);
+    }
+}
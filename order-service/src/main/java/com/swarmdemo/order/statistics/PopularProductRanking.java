@@ -0,0 +1,388 @@
+package com.swarmdemo.order.statistics;
+
+import com.swarmdemo.order.entity.Order;
+import com.swarmdemo.order.repository.OrderRepository;
+import com.swarmdemo.order.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.connection.DefaultTuple;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 热门商品排行
+ * <p>
+ * 使用Redis有序集合按商品名累计销量，订单写操作提交后增量更新，所有实例共享同一份排行。
+ * 除全量排行外，按订单创建时间维护5分钟/小时/天三种粒度的分桶，
+ * 查询最近一小时/一天/一周时合并对应分桶并短暂缓存合并结果。
+ * 定时任务从订单表重建全量排行和各时间窗口读取的分桶，多个实例通过Redis锁保证每个周期只有一个实例执行。
+ * 重建在扫描订单表与替换Redis键之间提交的增量会被覆盖，由下一次重建修正，因此排行是近似值。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+public class PopularProductRanking {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularProductRanking.class);
+
+    public static final String WINDOW_ALL = "all";
+    public static final String WINDOW_HOUR = "hour";
+    public static final String WINDOW_DAY = "day";
+    public static final String WINDOW_WEEK = "week";
+
+    private static final String KEY_PREFIX = "order:popular:";
+    private static final String ALL_KEY = KEY_PREFIX + "all";
+
+    private static final long FIVE_MINUTES = Duration.ofMinutes(5).getSeconds();
+    private static final long ONE_HOUR = Duration.ofHours(1).getSeconds();
+    private static final long ONE_DAY = Duration.ofDays(1).getSeconds();
+
+    private static final Bucket FIVE_MINUTE_BUCKET = new Bucket(KEY_PREFIX + "m5:", FIVE_MINUTES, 12, Duration.ofHours(2));
+    private static final Bucket HOUR_BUCKET = new Bucket(KEY_PREFIX + "h:", ONE_HOUR, 24, Duration.ofDays(2));
+    private static final Bucket DAY_BUCKET = new Bucket(KEY_PREFIX + "d:", ONE_DAY, 7, Duration.ofDays(8));
+    private static final List<Bucket> BUCKETS = Arrays.asList(FIVE_MINUTE_BUCKET, HOUR_BUCKET, DAY_BUCKET);
+
+    private static final Duration WINDOW_RESULT_TTL = Duration.ofSeconds(10);
+
+    private static final String RECONCILE_LOCK_KEY = KEY_PREFIX + "reconcile-lock";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /**
+     * 重建锁的持有时间，略短于重建间隔；重建成功后不主动释放，同一周期内其他实例跳过
+     */
+    @Value("${order.popular-products.reconcile-lock-ttl:PT29M}")
+    private Duration reconcileLockTtl;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * 记录新建订单
+     */
+    public void recordCreated(Order order) {
+        afterCommit(() -> increment(order.getProductName(), order.getQuantity(), order.getCreatedAt()));
+    }
+
+    /**
+     * 记录批量新建的订单，所有增量在一次管道请求中写入
+     */
+    public void recordCreatedAll(List<Order> orders) {
+        afterCommit(() -> incrementAll(orders));
+    }
+
+    /**
+     * 记录商品名称或数量变更
+     */
+    public void recordChanged(String oldProductName, Integer oldQuantity, Order order) {
+        if (oldProductName.equals(order.getProductName()) && oldQuantity.equals(order.getQuantity())) {
+            return;
+        }
+        afterCommit(() -> {
+            increment(oldProductName, -oldQuantity, order.getCreatedAt());
+            increment(order.getProductName(), order.getQuantity(), order.getCreatedAt());
+        });
+    }
+
+    /**
+     * 记录删除订单
+     */
+    public void recordDeleted(Order order) {
+        afterCommit(() -> increment(order.getProductName(), -order.getQuantity(), order.getCreatedAt()));
+    }
+
+    /**
+     * 查询指定时间窗口内的热门商品
+     */
+    public List<OrderService.PopularProduct> top(int limit, String window) {
+        String key = WINDOW_ALL.equals(window) ? ALL_KEY : windowKey(window);
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                redisTemplate.opsForZSet().reverseRangeWithScores(key, 0, limit - 1);
+
+        List<OrderService.PopularProduct> products = new ArrayList<>(limit);
+        if (tuples != null) {
+            for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                if (tuple.getScore() != null && tuple.getScore() > 0) {
+                    products.add(new OrderService.PopularProduct(tuple.getValue(), tuple.getScore().longValue()));
+                }
+            }
+        }
+        return products;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(ALL_KEY))) {
+                reconcile();
+            }
+        } catch (Exception e) {
+            logger.warn("初始化热门商品排行失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从订单表重建全量排行和时间窗口分桶；未取得重建锁时跳过本次重建
+     */
+    @Scheduled(fixedDelayString = "${order.popular-products.reconcile-interval:PT30M}",
+               initialDelayString = "${order.popular-products.reconcile-interval:PT30M}")
+    public void reconcile() {
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(RECONCILE_LOCK_KEY, instanceId, reconcileLockTtl);
+        if (!Boolean.TRUE.equals(acquired)) {
+            logger.debug("热门商品排行重建已由其他实例执行，跳过");
+            return;
+        }
+        try {
+            rebuildAll();
+            rebuildWindows();
+        } catch (RuntimeException e) {
+            // 重建失败时释放锁，让其他实例在下个周期重试
+            redisTemplate.delete(RECONCILE_LOCK_KEY);
+            throw e;
+        }
+    }
+
+    private void rebuildAll() {
+        List<Object[]> rows = orderRepository.findPopularProducts(Pageable.unpaged());
+        Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            tuples.add(ZSetOperations.TypedTuple.of((String) row[0], ((Number) row[1]).doubleValue()));
+        }
+
+        if (tuples.isEmpty()) {
+            redisTemplate.delete(ALL_KEY);
+        } else {
+            String rebuildKey = ALL_KEY + ":rebuild";
+            redisTemplate.delete(rebuildKey);
+            redisTemplate.opsForZSet().add(rebuildKey, tuples);
+            redisTemplate.rename(rebuildKey, ALL_KEY);
+        }
+        logger.info("热门商品排行重建完成，商品数: {}", tuples.size());
+    }
+
+    /**
+     * 按订单创建时间重建各时间窗口读取的分桶：订单表按5分钟时间片汇总，
+     * 每个时间片按增量更新相同的换算方式归入5分钟/小时/天分桶，没有订单的分桶删除
+     */
+    private void rebuildWindows() {
+        long now = epochSecond(LocalDateTime.now());
+        Map<Bucket, Map<Long, Map<String, Double>>> windows = new LinkedHashMap<>();
+        for (Bucket bucket : BUCKETS) {
+            Map<Long, Map<String, Double>> buckets = new HashMap<>();
+            long current = now / bucket.seconds;
+            for (long index = current - bucket.count + 1; index <= current; index++) {
+                buckets.put(index, new HashMap<>());
+            }
+            windows.put(bucket, buckets);
+        }
+
+        long oldestSecond = (now / DAY_BUCKET.seconds - DAY_BUCKET.count + 1) * DAY_BUCKET.seconds;
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochSecond(oldestSecond), ZoneId.systemDefault());
+        for (Object[] row : orderRepository.sumQuantityByProductPerFiveMinutesSince(since)) {
+            String productName = (String) row[0];
+            long epochSecond = epochSecond(toLocalDateTime(row[1]));
+            double quantity = ((Number) row[2]).doubleValue();
+            for (Bucket bucket : BUCKETS) {
+                Map<String, Double> scores = windows.get(bucket).get(epochSecond / bucket.seconds);
+                if (scores != null) {
+                    scores.merge(productName, quantity, Double::sum);
+                }
+            }
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<Bucket, Map<Long, Map<String, Double>>> window : windows.entrySet()) {
+                Bucket bucket = window.getKey();
+                for (Map.Entry<Long, Map<String, Double>> entry : window.getValue().entrySet()) {
+                    writeBucket(connection, bucket, bucket.prefix + entry.getKey(), entry.getValue());
+                }
+            }
+            return null;
+        });
+        logger.info("热门商品时间窗口分桶重建完成，起始时间: {}", since);
+    }
+
+    private void writeBucket(RedisConnection connection, Bucket bucket, String key, Map<String, Double> scores) {
+        Set<RedisZSetCommands.Tuple> tuples = new HashSet<>(scores.size() * 2);
+        for (Map.Entry<String, Double> score : scores.entrySet()) {
+            if (score.getValue() > 0) {
+                tuples.add(new DefaultTuple(bytes(score.getKey()), score.getValue()));
+            }
+        }
+        if (tuples.isEmpty()) {
+            connection.keyCommands().del(bytes(key));
+            return;
+        }
+        byte[] rebuildKey = bytes(key + ":rebuild");
+        connection.keyCommands().del(rebuildKey);
+        connection.zSetCommands().zAdd(rebuildKey, tuples);
+        connection.keyCommands().rename(rebuildKey, bytes(key));
+        connection.keyCommands().expire(bytes(key), bucket.ttl.getSeconds());
+    }
+
+    /**
+     * 时间窗口的起始时间，全量排行返回 null
+     */
+    public static LocalDateTime windowStart(String window) {
+        switch (window) {
+            case WINDOW_ALL:
+                return null;
+            case WINDOW_HOUR:
+                return LocalDateTime.now().minusHours(1);
+            case WINDOW_DAY:
+                return LocalDateTime.now().minusDays(1);
+            case WINDOW_WEEK:
+                return LocalDateTime.now().minusWeeks(1);
+            default:
+                throw new IllegalArgumentException("不支持的时间窗口: " + window);
+        }
+    }
+
+    private String windowKey(String window) {
+        long now = epochSecond(LocalDateTime.now());
+        Bucket bucket;
+        switch (window) {
+            case WINDOW_HOUR:
+                bucket = FIVE_MINUTE_BUCKET;
+                break;
+            case WINDOW_DAY:
+                bucket = HOUR_BUCKET;
+                break;
+            case WINDOW_WEEK:
+                bucket = DAY_BUCKET;
+                break;
+            default:
+                throw new IllegalArgumentException("不支持的时间窗口: " + window);
+        }
+
+        long currentBucket = now / bucket.seconds;
+        String resultKey = KEY_PREFIX + "window:" + window + ":" + currentBucket;
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(resultKey))) {
+            List<String> otherKeys = new ArrayList<>(bucket.count - 1);
+            for (int i = 1; i < bucket.count; i++) {
+                otherKeys.add(bucket.prefix + (currentBucket - i));
+            }
+            redisTemplate.opsForZSet().unionAndStore(bucket.prefix + currentBucket, otherKeys, resultKey);
+            redisTemplate.expire(resultKey, WINDOW_RESULT_TTL);
+        }
+        return resultKey;
+    }
+
+    private void increment(String productName, int quantity, LocalDateTime createdAt) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                writeIncrement(connection, productName, quantity, createdAt);
+                return null;
+            });
+        } catch (Exception e) {
+            logger.warn("更新热门商品排行失败，商品: {}, 异常: {}", productName, e.getMessage());
+        }
+    }
+
+    private void incrementAll(List<Order> orders) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Order order : orders) {
+                    writeIncrement(connection, order.getProductName(), order.getQuantity(), order.getCreatedAt());
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.warn("批量更新热门商品排行失败，订单数: {}, 异常: {}", orders.size(), e.getMessage());
+        }
+    }
+
+    private void writeIncrement(RedisConnection connection, String productName, int quantity, LocalDateTime createdAt) {
+        if (productName == null || quantity == 0) {
+            return;
+        }
+        long epochSecond = epochSecond(createdAt != null ? createdAt : LocalDateTime.now());
+        byte[] member = productName.getBytes(StandardCharsets.UTF_8);
+
+        connection.zSetCommands().zIncrBy(bytes(ALL_KEY), quantity, member);
+        for (Bucket bucket : BUCKETS) {
+            incrementBucket(connection, bucket.prefix + epochSecond / bucket.seconds, member, quantity, bucket.ttl);
+        }
+    }
+
+    private void incrementBucket(RedisConnection connection, String key, byte[] member, int quantity, Duration ttl) {
+        byte[] keyBytes = bytes(key);
+        connection.zSetCommands().zIncrBy(keyBytes, quantity, member);
+        connection.keyCommands().expire(keyBytes, ttl.getSeconds());
+    }
+
+    private byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 时间窗口分桶：键前缀、分桶长度（秒）、查询窗口合并的分桶数和分桶的过期时间
+     */
+    private static final class Bucket {
+
+        private final String prefix;
+        private final long seconds;
+        private final int count;
+        private final Duration ttl;
+
+        private Bucket(String prefix, long seconds, int count, Duration ttl) {
+            this.prefix = prefix;
+            this.seconds = seconds;
+            this.count = count;
+            this.ttl = ttl;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.swarmdemo.order.vo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量创建订单结果视图对象
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public class BulkOrderResult {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<Item> items = new ArrayList<>();
+
+    // 构造方法
+    public BulkOrderResult() {}
+
+    public BulkOrderResult(int total) {
+        this.total = total;
+    }
+
+    public void addSuccess(int index, Long orderId) {
+        items.add(new Item(index, true, orderId, null));
+        succeeded++;
+    }
+
+    public void addFailure(int index, String error) {
+        items.add(new Item(index, false, null, error));
+        failed++;
+    }
+
+    // Getter和Setter方法
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    /**
+     * 单条订单的处理结果，index为请求中的下标
+     */
+    public static class Item {
+        private int index;
+        private boolean success;
+        private Long orderId;
+        private String error;
+
+        public Item() {}
+
+        public Item(int index, boolean success, Long orderId, String error) {
+            this.index = index;
+            this.success = success;
+            this.orderId = orderId;
+            this.error = error;
+        }
+
+        // Getter方法
+        public int getIndex() { return index; }
+        public boolean isSuccess() { return success; }
+        public Long getOrderId() { return orderId; }
+        public String getError() { return error; }
+
+        // Setter方法
+        public void setIndex(int index) { this.index = index; }
+        public void setSuccess(boolean success) { this.success = success; }
+        public void setOrderId(Long orderId) { this.orderId = orderId; }
+        public void setError(String error) { this.error = error; }
+    }
+}
@@ -0,0 +1,123 @@
+package com.swarmdemo.order.vo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.swarmdemo.order.entity.Order;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 订单列表项
+ * <p>
+ * 列表查询直接由JPQL构造该对象，不加载受管实体，也就没有持久化上下文中的快照和脏检查；
+ * JSON字段与 {@link Order} 保持一致。
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public class OrderSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private Long userId;
+    private String productName;
+    private Integer quantity;
+    private BigDecimal price;
+    private Order.OrderStatus status;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    // 构造方法
+    public OrderSummary() {}
+
+    public OrderSummary(Long id, Long userId, String productName, Integer quantity, BigDecimal price,
+                        Order.OrderStatus status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.price = price;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // 计算总金额
+    public BigDecimal getTotalAmount() {
+        if (price != null && quantity != null) {
+            return price.multiply(new BigDecimal(quantity));
+        }
+        return BigDecimal.ZERO;
+    }
+
+    // Getter和Setter方法
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,30 @@
+-- 订单服务基线表结构（与 scripts/init.sql 一致）
+-- 使用 IF NOT EXISTS，已由 init.sql 或 ddl-auto 建好表的库执行本脚本不产生变化
+
+CREATE TABLE IF NOT EXISTS orders (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    product_name VARCHAR(200) NOT NULL,
+    quantity INT NOT NULL DEFAULT 1,
+    price DECIMAL(10,2) NOT NULL,
+    status VARCHAR(50) DEFAULT 'CREATED',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_user_id (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS id_generator (
+    name VARCHAR(255) PRIMARY KEY,
+    next_val BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS order_status_summary (
+    status VARCHAR(50) PRIMARY KEY,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(19,2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+INSERT INTO id_generator (name, next_val)
+SELECT 'orders', COALESCE(MAX(id), 0) + 51 FROM orders
+WHERE NOT EXISTS (SELECT 1 FROM id_generator WHERE name = 'orders');
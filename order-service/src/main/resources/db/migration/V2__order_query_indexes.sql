@@ -0,0 +1,24 @@
+-- 按 OrderRepository 的查询条件补充组合索引和覆盖索引
+-- InnoDB二级索引隐含主键列，(a) 等价于 (a, id)，可直接满足 "WHERE a = ? ORDER BY id DESC" 的游标分页
+
+-- findByUserIdAndStatus：等值匹配两列，结果按id有序
+CREATE INDEX idx_orders_user_status ON orders (user_id, status);
+
+-- findRecentOrdersByUserId：WHERE user_id = ? ORDER BY created_at DESC，反向扫描索引避免filesort
+CREATE INDEX idx_orders_user_created ON orders (user_id, created_at);
+
+-- findByStatus / countByStatus / 状态游标分页：(status, id)
+CREATE INDEX idx_orders_status ON orders (status);
+
+-- summarizeByStatus / calculateTotalAmountByStatus：覆盖索引，聚合只读索引不回表
+CREATE INDEX idx_orders_status_amount ON orders (status, price, quantity);
+
+-- findByPriceBetween：价格范围扫描
+CREATE INDEX idx_orders_price ON orders (price);
+
+-- findByCreatedAtBetween：时间范围扫描
+-- findPopularProductsSince：覆盖 created_at 范围内按商品汇总数量，不回表
+CREATE INDEX idx_orders_created_product ON orders (created_at, product_name, quantity);
+
+-- findPopularProducts：全表汇总改为只扫描较窄的覆盖索引
+CREATE INDEX idx_orders_product_quantity ON orders (product_name, quantity);
@@ -0,0 +1,3 @@
+-- 商品名称全文索引，替代 LIKE '%...%' 的全表扫描
+-- ngram解析器按 ngram_token_size（默认2）切分，中文商品名无需分词即可检索
+ALTER TABLE orders ADD FULLTEXT INDEX ft_orders_product_name (product_name) WITH PARSER ngram;
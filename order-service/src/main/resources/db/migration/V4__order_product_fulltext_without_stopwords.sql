@@ -0,0 +1,8 @@
+-- 重建商品名称全文索引，不使用停用词表
+-- ngram解析器会丢弃包含停用词的词元，默认停用词表含 a、i、on 等，英文商品名会丢失大部分bigram
+-- 停用词设置在创建索引时绑定到该索引，因此在本会话中关闭停用词后重建索引即可，不依赖MySQL服务器的全局配置
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+ALTER TABLE orders DROP INDEX ft_orders_product_name;
+
+ALTER TABLE orders ADD FULLTEXT INDEX ft_orders_product_name (product_name) WITH PARSER ngram;
@@ -0,0 +1,208 @@
+package com.swarmdemo.order.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.Param;
+import feign.Request;
+import feign.RequestLine;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Feign传输层对比
+ * <p>
+ * 本地启动一个返回固定JSON的HTTP服务，分别使用 default（HttpURLConnection）、hc5（与
+ * {@link FeignTransportConfig} 相同配置的连接池）和 jdk（JDK HttpClient）传输层并发调用，
+ * 输出吞吐量、p50/p99延迟以及服务端看到的TCP连接数。JDK自带的HTTP服务只支持HTTP/1.1，
+ * jdk传输层在这里会回退到HTTP/1.1，HTTP/2多路复用的效果需要对真实的用户服务测试。运行方式：
+ * {@code mvn -B test -Dtest=FeignTransportComparisonTest}
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+class FeignTransportComparisonTest {
+
+    private static final int THREADS = 16;
+    private static final int WARM_UP_REQUESTS_PER_THREAD = 50;
+    private static final int REQUESTS_PER_THREAD = 200;
+    private static final int USERS_PER_RESPONSE = 100;
+
+    static {
+        // JDK HTTP服务默认开启Nagle算法，响应头和响应体分两次写出时会与客户端的延迟确认叠加出约40ms的等待
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        // 没有Spring Boot日志配置时logback默认输出DEBUG，HttpClient 5的连接池调试日志会显著拖慢hc5；与服务运行时一样使用INFO
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+    }
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String url;
+
+    interface UserApi {
+
+        @RequestLine("GET /users/batch?ids={ids}")
+        String getUsersByIds(@Param("ids") String ids);
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        byte[] body = usersJson(USERS_PER_RESPONSE);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.createContext("/users/batch", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(THREADS);
+        server.setExecutor(serverExecutor);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void compareTransports() throws Exception {
+        FeignTransportConfig.ApacheHttp5Transport hc5 = new FeignTransportConfig.ApacheHttp5Transport();
+        ReflectionTestUtils.setField(hc5, "maxConnections", 200);
+        ReflectionTestUtils.setField(hc5, "maxConnectionsPerRoute", 50);
+        ReflectionTestUtils.setField(hc5, "connectionTimeToLive", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(hc5, "idleTimeout", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(hc5, "validateAfterInactivity", Duration.ofSeconds(2));
+        HttpClient jdkHttpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(1))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+
+        System.out.printf("%-8s %10s %10s %10s %12s%n", "client", "req/s", "p50 ms", "p99 ms", "connections");
+        run("default", new Client.Default(null, null));
+        try (CloseableHttpClient httpClient = hc5.feignHttpClient()) {
+            Result result = run("hc5", new ApacheHttp5Client(httpClient));
+            // 连接池复用长连接，连接数不超过并发数
+            assertThat(result.connections).isLessThanOrEqualTo(THREADS);
+        }
+        run("jdk", new Http2Client(jdkHttpClient));
+    }
+
+    private Result run(String name, Client client) throws Exception {
+        UserApi api = Feign.builder()
+                .client(client)
+                .options(new Request.Options(1, TimeUnit.SECONDS, 3, TimeUnit.SECONDS, false))
+                .target(UserApi.class, url);
+
+        call(api, WARM_UP_REQUESTS_PER_THREAD);
+        clientPorts.clear();
+        long start = System.nanoTime();
+        long[] latencies = call(api, REQUESTS_PER_THREAD);
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        Result result = new Result(latencies.length * 1e9 / elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), clientPorts.size());
+        System.out.printf("%-8s %10.0f %10.2f %10.2f %12d%n",
+                name, result.throughput, result.p50Millis, result.p99Millis, result.connections);
+        return result;
+    }
+
+    /**
+     * THREADS 个线程并发，每个线程顺序发送 requests 个请求，返回每个请求的耗时（纳秒）
+     */
+    private static long[] call(UserApi api, int requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[requests];
+                    for (int i = 0; i < requests; i++) {
+                        long start = System.nanoTime();
+                        String response = api.getUsersByIds("1,2,3");
+                        latencies[i] = System.nanoTime() - start;
+                        assertThat(response).startsWith("[{");
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[THREADS * requests];
+            for (int t = 0; t < THREADS; t++) {
+                System.arraycopy(futures.get(t).get(1, TimeUnit.MINUTES), 0, all, t * requests, requests);
+            }
+            return all;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * percentile) - 1);
+        return sorted[index] / 1_000_000.0;
+    }
+
+    private static byte[] usersJson(int size) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 1; i <= size; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"用户").append(i)
+                    .append("\",\"email\":\"user").append(i).append("@example.com\"")
+                    .append(",\"age\":").append(18 + i % 50)
+                    .append(",\"createdAt\":\"2025-08-25 12:00:00\",\"updatedAt\":\"2025-08-25 12:00:00\"}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class Result {
+
+        private final double throughput;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final int connections;
+
+        private Result(double throughput, double p50Millis, double p99Millis, int connections) {
+            this.throughput = throughput;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.connections = connections;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.swarmdemo.order.feign;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对冲请求测试
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+class RequestHedgerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RequestHedger hedger;
+
+    @AfterEach
+    void tearDown() {
+        if (hedger != null) {
+            hedger.destroy();
+        }
+    }
+
+    @Test
+    void sendsExactlyOneHedgeAfterPercentileDelay() throws InterruptedException {
+        hedger = hedger(Duration.ofMillis(1), 1.0);
+        // 65个约20ms的样本，触发一次延迟重算，p95约为20ms（预热期间按1ms下限触发的对冲不计入断言）
+        for (int i = 0; i < 65; i++) {
+            hedger.execute(() -> {
+                sleep(20);
+                return "warm-up";
+            });
+        }
+        double hedgedBefore = meterRegistry.counter("order.user.hedging.hedged").count();
+        double winsBefore = meterRegistry.counter("order.user.hedging.wins").count();
+
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicLong hedgeStartedAfter = new AtomicLong();
+        CountDownLatch original = new CountDownLatch(1);
+        long start = System.nanoTime();
+        String result = hedger.execute(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                await(original, 1000);
+                return "original";
+            }
+            hedgeStartedAfter.set(System.nanoTime() - start);
+            return "hedge";
+        });
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(hedgeStartedAfter.get())).isGreaterThanOrEqualTo(20);
+        original.countDown();
+        Thread.sleep(100);
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(meterRegistry.counter("order.user.hedging.hedged").count() - hedgedBefore).isEqualTo(1);
+        assertThat(meterRegistry.counter("order.user.hedging.wins").count() - winsBefore).isEqualTo(1);
+    }
+
+    @Test
+    void fastCallsAreNotHedged() {
+        hedger = hedger(Duration.ofMillis(50), 1.0);
+        AtomicInteger attempts = new AtomicInteger();
+        for (int i = 0; i < 20; i++) {
+            hedger.execute(attempts::incrementAndGet);
+        }
+
+        assertThat(attempts.get()).isEqualTo(20);
+        assertThat(meterRegistry.counter("order.user.hedging.hedged").count()).isZero();
+    }
+
+    @Test
+    void hedgesAreLimitedByMaxRatio() {
+        hedger = hedger(Duration.ofMillis(10), 0.25);
+        // 4个成功请求积累1次对冲预算
+        for (int i = 0; i < 4; i++) {
+            hedger.execute(() -> "warm-up");
+        }
+
+        AtomicInteger firstAttempts = new AtomicInteger();
+        assertThat(hedger.execute(() -> slowUnlessHedge(firstAttempts))).isEqualTo("hedge");
+
+        // 预算已用完（对冲成功只补回0.25），第二个慢请求不再对冲，等待原请求返回
+        AtomicInteger secondAttempts = new AtomicInteger();
+        assertThat(hedger.execute(() -> slowUnlessHedge(secondAttempts))).isEqualTo("original");
+
+        assertThat(firstAttempts.get()).isEqualTo(2);
+        assertThat(secondAttempts.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("order.user.hedging.hedged").count()).isEqualTo(1);
+    }
+
+    @Test
+    void firstAttemptRunsOnCallerThread() {
+        hedger = hedger(Duration.ofMillis(1), 1.0);
+        for (int i = 0; i < 4; i++) {
+            hedger.execute(() -> "warm-up");
+        }
+
+        AtomicInteger attempts = new AtomicInteger();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        String result = hedger.execute(() -> {
+            threads.add(Thread.currentThread());
+            return slowUnlessHedge(attempts);
+        });
+
+        // 对冲先返回后调用线程被中断，首次请求提前结束，中断标记在返回前清除
+        assertThat(result).isEqualTo("hedge");
+        assertThat(threads).hasSize(2);
+        assertThat(threads.get(0)).isSameAs(Thread.currentThread());
+        assertThat(threads.get(1).getName()).startsWith("hedged-call-");
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void disabledHedgerCallsOnce() {
+        hedger = hedger(Duration.ofMillis(1), 1.0);
+        ReflectionTestUtils.setField(hedger, "enabled", false);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThat(hedger.execute(() -> slowUnlessHedge(attempts))).isEqualTo("original");
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    private RequestHedger hedger(Duration minDelay, double maxRatio) {
+        RequestHedger requestHedger = new RequestHedger();
+        ReflectionTestUtils.setField(requestHedger, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(requestHedger, "enabled", true);
+        ReflectionTestUtils.setField(requestHedger, "percentile", 0.95);
+        ReflectionTestUtils.setField(requestHedger, "minDelay", minDelay);
+        ReflectionTestUtils.setField(requestHedger, "maxRatio", maxRatio);
+        ReflectionTestUtils.setField(requestHedger, "hedgeCoreThreads", 8);
+        ReflectionTestUtils.setField(requestHedger, "hedgeMaxThreads", 16);
+        ReflectionTestUtils.setField(requestHedger, "hedgeQueueCapacity", 50);
+        ReflectionTestUtils.setField(requestHedger, "virtualThreads", false);
+        requestHedger.init();
+        return requestHedger;
+    }
+
+    /**
+     * 第一次调用耗时200ms，之后的调用（对冲）立即返回
+     */
+    private static String slowUnlessHedge(AtomicInteger attempts) {
+        if (attempts.incrementAndGet() == 1) {
+            sleep(200);
+            return "original";
+        }
+        return "hedge";
+    }
+
+    private static void await(CountDownLatch latch, long millis) {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
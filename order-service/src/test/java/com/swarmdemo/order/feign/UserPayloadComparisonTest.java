@@ -0,0 +1,125 @@
+package com.swarmdemo.order.feign;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.CodedOutputStream;
+import com.swarmdemo.order.dto.UserDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 用户批量查询的JSON与protobuf响应对比
+ * <p>
+ * 使用相同的用户数据分别生成 {@code /users/batch}（JSON，含时间字段）与 {@code /internal/users/batch}
+ * （长度前缀protobuf）的响应体，校验两种解码结果一致，并输出响应大小和解码的CPU时间。
+ * 只比较order-service侧的解码开销，不含网络传输；运行方式：
+ * {@code mvn -B test -Dtest=UserPayloadComparisonTest}
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+class UserPayloadComparisonTest {
+
+    private static final int WARM_UP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final TypeReference<List<UserDto>> userListType = new TypeReference<List<UserDto>>() {
+    };
+
+    @Test
+    void compareJsonAndProtobufDecoding() throws IOException {
+        System.out.printf("%-8s %12s %12s %14s %14s%n", "users", "json bytes", "proto bytes", "json us/op", "proto us/op");
+        for (int size : new int[]{10, 100, 1000, 5000}) {
+            List<UserDto> users = users(size);
+            byte[] json = objectMapper.writeValueAsBytes(users);
+            byte[] proto = writeDelimited(users);
+
+            List<UserDto> fromJson = decodeJson(json);
+            List<UserDto> fromProto = decodeProto(proto);
+            assertThat(fromProto).hasSize(size);
+            for (int i = 0; i < size; i++) {
+                assertThat(fromProto.get(i)).usingRecursiveComparison()
+                        .ignoringFields("createdAt", "updatedAt")
+                        .isEqualTo(fromJson.get(i));
+            }
+            assertThat(proto.length).isLessThan(json.length);
+
+            long jsonNanos = cpuNanosPerOp(() -> decodeJson(json));
+            long protoNanos = cpuNanosPerOp(() -> decodeProto(proto));
+            System.out.printf("%-8d %12d %12d %14.1f %14.1f%n",
+                    size, json.length, proto.length, jsonNanos / 1000.0, protoNanos / 1000.0);
+        }
+    }
+
+    private List<UserDto> decodeJson(byte[] body) throws IOException {
+        return objectMapper.readValue(body, userListType);
+    }
+
+    private static List<UserDto> decodeProto(byte[] body) throws IOException {
+        List<UserDto> users = new ArrayList<>();
+        UserProto.readDelimited(new ByteArrayInputStream(body), users::add);
+        return users;
+    }
+
+    private static long cpuNanosPerOp(Decode decode) throws IOException {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            decode.run();
+        }
+        long start = threadMXBean.getCurrentThreadCpuTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            decode.run();
+        }
+        return (threadMXBean.getCurrentThreadCpuTime() - start) / MEASURED_ITERATIONS;
+    }
+
+    private static List<UserDto> users(int size) {
+        LocalDateTime now = LocalDateTime.of(2025, 8, 25, 12, 0, 0);
+        List<UserDto> users = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            UserDto user = new UserDto((long) i, "用户" + i, "user" + i + "@example.com", 18 + i % 50);
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * 按用户服务 InternalUserController 的格式写出长度前缀的 User 消息
+     */
+    private static byte[] writeDelimited(List<UserDto> users) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        for (UserDto user : users) {
+            int size = CodedOutputStream.computeInt64Size(1, user.getId())
+                    + CodedOutputStream.computeStringSize(2, user.getName())
+                    + CodedOutputStream.computeStringSize(3, user.getEmail())
+                    + CodedOutputStream.computeInt32Size(4, user.getAge());
+            output.writeUInt32NoTag(size);
+            output.writeInt64(1, user.getId());
+            output.writeString(2, user.getName());
+            output.writeString(3, user.getEmail());
+            output.writeInt32(4, user.getAge());
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Decode {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,112 @@
+package com.swarmdemo.order.loadbalancer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 峰值EWMA负载均衡测试：一个慢实例与一个快实例
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+class PeakEwmaLoadBalancerTest {
+
+    private final ServiceInstance slow = new DefaultServiceInstance("slow", "user-service", "10.0.0.1", 8081, false);
+    private final ServiceInstance fast = new DefaultServiceInstance("fast", "user-service", "10.0.0.2", 8081, false);
+
+    private InstanceLatencyTracker tracker;
+    private PeakEwmaLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new InstanceLatencyTracker();
+        ReflectionTestUtils.setField(tracker, "decayTime", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(tracker, "failurePenalty", Duration.ofSeconds(5));
+
+        ServiceInstanceListSupplier supplier = ServiceInstanceListSuppliers.from("user-service", slow, fast);
+        loadBalancer = new PeakEwmaLoadBalancer(
+                new StaticListableBeanFactory(Collections.singletonMap("supplier", supplier))
+                        .getBeanProvider(ServiceInstanceListSupplier.class),
+                "user-service", tracker);
+    }
+
+    @Test
+    void slowInstanceCostsMoreThanFastInstance() {
+        complete(slow, Duration.ofMillis(500));
+        complete(fast, Duration.ofMillis(5));
+
+        assertThat(tracker.cost(slow)).isGreaterThan(tracker.cost(fast));
+    }
+
+    @Test
+    void choosesFastInstanceOnceLatenciesAreKnown() {
+        complete(slow, Duration.ofMillis(500));
+        complete(fast, Duration.ofMillis(5));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(choose()).isEqualTo(fast);
+        }
+    }
+
+    @Test
+    void outstandingRequestsShiftLoadAwayFromBusyInstance() {
+        complete(slow, Duration.ofMillis(20));
+        complete(fast, Duration.ofMillis(5));
+        for (int i = 0; i < 10; i++) {
+            start(fast);
+        }
+
+        assertThat(choose()).isEqualTo(slow);
+    }
+
+    @Test
+    void failedRequestsArePenalized() {
+        complete(slow, Duration.ofMillis(5));
+        complete(fast, Duration.ofMillis(20));
+        Request<RequestDataContext> request = start(slow);
+        tracker.onComplete(new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
+                CompletionContext.Status.FAILED, new IllegalStateException("down"), request, new DefaultResponse(slow)));
+
+        assertThat(choose()).isEqualTo(fast);
+    }
+
+    private ServiceInstance choose() {
+        Response<ServiceInstance> response = loadBalancer.choose(new DefaultRequest<>(new RequestDataContext())).block();
+        assertThat(response).isNotNull();
+        return response.getServer();
+    }
+
+    private Request<RequestDataContext> start(ServiceInstance instance) {
+        Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        tracker.onStartRequest(request, new DefaultResponse(instance));
+        return request;
+    }
+
+    /**
+     * 模拟一次耗时为 latency 的成功请求（回拨开始时间，无需真实等待）
+     */
+    private void complete(ServiceInstance instance, Duration latency) {
+        Request<RequestDataContext> request = start(instance);
+        request.getContext().setRequestStartTime(System.nanoTime() - latency.toNanos());
+        tracker.onComplete(new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
+                CompletionContext.Status.SUCCESS, request, new DefaultResponse(instance)));
+    }
+}
@@ -0,0 +1,143 @@
+package com.swarmdemo.order.repository;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.swarmdemo.order.entity.Order;
+import com.swarmdemo.order.vo.OrderSummary;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 订单列表接口的Hibernate统计对比
+ * <p>
+ * 在H2内存库中写入一批订单，分别按改造前后的方式执行 {@code GET /orders} 的查询：改造前在读写事务中加载全部实体，
+ * 改造后在只读事务中执行 {@link OrderRepository#findAllSummaries()} 的投影查询（只读事务按Spring的
+ * HibernateJpaDialect设置为手动刷新、默认只读）。输出两种方式的刷新次数、实体加载次数和查询次数。运行方式：
+ * {@code mvn -B test -Dtest=OrderListHibernateStatisticsTest}
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+class OrderListHibernateStatisticsTest {
+
+    private static final int ORDERS = 1000;
+
+    static {
+        // 没有Spring Boot日志配置时logback默认输出DEBUG，与服务运行时一样使用INFO
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+    }
+
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put(AvailableSettings.URL, "jdbc:h2:mem:orders;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        settings.put(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        settings.put(AvailableSettings.GENERATE_STATISTICS, true);
+        settings.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        settings.put(AvailableSettings.STATEMENT_BATCH_SIZE, 50);
+        registry = new StandardServiceRegistryBuilder().applySettings(settings).build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(Order.class)
+                .buildMetadata()
+                .buildSessionFactory();
+
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 1; i <= ORDERS; i++) {
+                Order order = new Order((long) (i % 100 + 1), "商品" + i % 50, i % 5 + 1, new BigDecimal("19.90"));
+                order.setStatus(Order.OrderStatus.values()[i % Order.OrderStatus.values().length]);
+                session.persist(order);
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Test
+    void listEndpointNoLongerLoadsOrFlushesEntities() {
+        System.out.printf("%-10s %8s %14s %10s%n", "query", "flushes", "entity loads", "queries");
+
+        Result before = measure(() -> {
+            try (Session session = sessionFactory.openSession()) {
+                session.beginTransaction();
+                List<Order> orders = session.createQuery("SELECT o FROM Order o", Order.class).getResultList();
+                session.getTransaction().commit();
+                return orders.size();
+            }
+        });
+        print("entities", before);
+
+        Result after = measure(() -> {
+            try (Session session = sessionFactory.openSession()) {
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+                session.beginTransaction();
+                List<OrderSummary> orders = session.createQuery(OrderRepository.SUMMARY_SELECT, OrderSummary.class)
+                        .getResultList();
+                session.getTransaction().commit();
+                return orders.size();
+            }
+        });
+        print("summaries", after);
+
+        assertThat(before.entityLoads).isEqualTo(ORDERS);
+        assertThat(before.flushes).isEqualTo(1);
+        assertThat(after.entityLoads).isZero();
+        assertThat(after.flushes).isZero();
+    }
+
+    private Result measure(ListQuery query) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        assertThat(query.run()).isEqualTo(ORDERS);
+        return new Result(statistics.getFlushCount(), statistics.getEntityLoadCount(),
+                statistics.getQueryExecutionCount());
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("%-10s %8d %14d %10d%n", name, result.flushes, result.entityLoads, result.queries);
+    }
+
+    private interface ListQuery {
+
+        int run();
+    }
+
+    private static final class Result {
+
+        private final long flushes;
+        private final long entityLoads;
+        private final long queries;
+
+        private Result(long flushes, long entityLoads, long queries) {
+            this.flushes = flushes;
+            this.entityLoads = entityLoads;
+            this.queries = queries;
+        }
+    }
+}
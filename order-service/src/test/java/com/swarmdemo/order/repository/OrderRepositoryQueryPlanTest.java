@@ -0,0 +1,257 @@
+package com.swarmdemo.order.repository;
+
+import com.swarmdemo.order.entity.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * OrderRepository 查询计划检查
+ * <p>
+ * 在MySQL容器中执行Flyway迁移并灌入测试数据，逐个调用仓库方法，通过 general_log 取得Hibernate实际发出的SQL
+ * （驱动默认在客户端绑定参数，日志中是带实际参数的完整语句），对每条语句执行 {@code EXPLAIN}，
+ * 出现全表扫描（type=ALL）即失败。新增的查询方法必须加入检查或明确列为豁免。
+ * 需要本机Docker，没有Docker时跳过。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.properties.hibernate.format_sql=false"
+})
+class OrderRepositoryQueryPlanTest {
+
+    private static final int SEED_ROWS = 100_000;
+
+    private static final Long USER_ID = 42L;
+    private static final Long CURSOR_ID = 50_000L;
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+    private static final LocalDateTime RANGE_START = LocalDateTime.of(2025, 3, 1, 0, 0);
+    private static final LocalDateTime RANGE_END = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    /**
+     * 不检查的查询：本身需要读取全部订单
+     */
+    private static final Set<String> EXEMPT = new TreeSet<>(Arrays.asList(
+            "findAllSummaries",
+            "streamForExport(无条件)"));
+
+    @Container
+    private static final MySQLContainer<?> mysql = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"))
+            .withDatabaseName("microservices_db")
+            .withUsername("root")
+            .withPassword("rootpassword");
+
+    private static boolean seeded;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    /**
+     * 数据分布接近线上：大部分订单已完成，少量处于中间状态，价格和时间分散在较大范围内
+     */
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.execute("SET SESSION cte_max_recursion_depth = " + SEED_ROWS);
+        jdbcTemplate.update("INSERT INTO orders (user_id, product_name, quantity, price, status, created_at, updated_at) " +
+                "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < " + SEED_ROWS + ") " +
+                "SELECT n % 5000 + 1, CONCAT('商品-', n % 2000), n % 5 + 1, (n % 10000) / 10 + 0.01, " +
+                "COALESCE(ELT(FIELD(n % 20, 0, 1, 2, 3, 4, 5), " +
+                "'CREATED', 'PAID', 'PROCESSING', 'SHIPPED', 'DELIVERED', 'CANCELLED'), 'COMPLETED'), " +
+                "TIMESTAMP('2025-01-01') + INTERVAL (n % 525600) MINUTE, " +
+                "TIMESTAMP('2025-01-01') + INTERVAL (n % 525600) MINUTE " +
+                "FROM seq");
+        jdbcTemplate.execute("ANALYZE TABLE orders");
+        jdbcTemplate.execute("SET GLOBAL log_output = 'TABLE'");
+        seeded = true;
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseIndexes() {
+        return queries().entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertUsesIndexes(query.getValue())));
+    }
+
+    /**
+     * OrderRepository 中声明的每个查询方法都必须被检查或豁免
+     */
+    @Test
+    void everyRepositoryMethodIsChecked() {
+        Set<String> checked = new TreeSet<>();
+        for (String name : queries().keySet()) {
+            checked.add(methodName(name));
+        }
+        for (String name : EXEMPT) {
+            checked.add(methodName(name));
+        }
+        Set<String> declared = Arrays.stream(OrderRepository.class.getDeclaredMethods())
+                .map(Method::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        assertThat(checked).containsAll(declared);
+    }
+
+    /**
+     * 查询名称 -> 仓库调用，同名重载方法以括号内的说明区分
+     */
+    private Map<String, Consumer<OrderRepository>> queries() {
+        Map<String, Consumer<OrderRepository>> queries = new LinkedHashMap<>();
+        queries.put("findSummariesByUserId", repository -> repository.findSummariesByUserId(USER_ID));
+        queries.put("findByUserId", repository -> repository.findByUserId(USER_ID));
+        queries.put("findByUserId(分页)", repository -> repository.findByUserId(USER_ID, PageRequest.of(0, 10)));
+        queries.put("findSummariesByStatus",
+                repository -> repository.findSummariesByStatus(Order.OrderStatus.PROCESSING));
+        queries.put("findByStatus(分页)", repository -> repository.findByStatus(Order.OrderStatus.PROCESSING, PAGE));
+        queries.put("findAllByOrderByIdDesc", repository -> repository.findAllByOrderByIdDesc(PAGE));
+        queries.put("findByIdLessThanOrderByIdDesc",
+                repository -> repository.findByIdLessThanOrderByIdDesc(CURSOR_ID, PAGE));
+        queries.put("findByUserIdOrderByIdDesc", repository -> repository.findByUserIdOrderByIdDesc(USER_ID, PAGE));
+        queries.put("findByUserIdAndIdLessThanOrderByIdDesc",
+                repository -> repository.findByUserIdAndIdLessThanOrderByIdDesc(USER_ID, CURSOR_ID, PAGE));
+        queries.put("findByStatusOrderByIdDesc",
+                repository -> repository.findByStatusOrderByIdDesc(Order.OrderStatus.PROCESSING, PAGE));
+        queries.put("findByStatusAndIdLessThanOrderByIdDesc",
+                repository -> repository.findByStatusAndIdLessThanOrderByIdDesc(
+                        Order.OrderStatus.PROCESSING, CURSOR_ID, PAGE));
+        queries.put("findByUserIdAndStatus",
+                repository -> repository.findByUserIdAndStatus(USER_ID, Order.OrderStatus.COMPLETED));
+        queries.put("searchByProductName", repository -> repository.searchByProductName("+商品 +12", PAGE));
+        queries.put("findSummariesByPriceBetween", repository -> repository.findSummariesByPriceBetween(
+                new BigDecimal("100.00"), new BigDecimal("101.00")));
+        queries.put("findSummariesByCreatedAtBetween",
+                repository -> repository.findSummariesByCreatedAtBetween(RANGE_START, RANGE_END));
+        queries.put("countByUserId", repository -> repository.countByUserId(USER_ID));
+        queries.put("countByStatus", repository -> repository.countByStatus(Order.OrderStatus.PROCESSING));
+        queries.put("calculateTotalAmountByUserId", repository -> repository.calculateTotalAmountByUserId(USER_ID));
+        queries.put("calculateTotalAmountByStatus",
+                repository -> repository.calculateTotalAmountByStatus(Order.OrderStatus.COMPLETED));
+        queries.put("summarizeByStatus", OrderRepository::summarizeByStatus);
+        queries.put("findRecentOrdersByUserId",
+                repository -> repository.findRecentOrdersByUserId(USER_ID, PageRequest.of(0, 10)));
+        queries.put("streamForExport(用户)", repository -> consume(repository.streamForExport(
+                null, USER_ID, null, null)));
+        queries.put("streamForExport(状态)", repository -> consume(repository.streamForExport(
+                Order.OrderStatus.PROCESSING, null, null, null)));
+        queries.put("streamForExport(时间范围)", repository -> consume(repository.streamForExport(
+                null, null, RANGE_START, RANGE_END)));
+        queries.put("findPopularProducts", repository -> repository.findPopularProducts(PageRequest.of(0, 10)));
+        queries.put("findPopularProductsSince", repository -> repository.findPopularProductsSince(
+                LocalDateTime.of(2025, 12, 1, 0, 0), PageRequest.of(0, 10)));
+        queries.put("sumQuantityByProductPerFiveMinutesSince",
+                repository -> repository.sumQuantityByProductPerFiveMinutesSince(LocalDateTime.of(2025, 12, 24, 0, 0)));
+        return queries;
+    }
+
+    private void assertUsesIndexes(Consumer<OrderRepository> query) {
+        List<String> statements = capture(query);
+        assertThat(statements).as("未捕获到查询语句").isNotEmpty();
+
+        for (String statement : statements) {
+            List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + statement);
+            assertThat(plan)
+                    .as("全表扫描: %s%n执行计划: %s", statement, plan)
+                    .noneMatch(row -> "ALL".equals(row.get("type")));
+        }
+    }
+
+    /**
+     * 打开 general_log 执行一次仓库调用，返回期间发出的访问 orders 表的语句
+     */
+    private List<String> capture(Consumer<OrderRepository> query) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        jdbcTemplate.execute("TRUNCATE TABLE mysql.general_log");
+        jdbcTemplate.execute("SET GLOBAL general_log = 'ON'");
+        try {
+            transactionTemplate.executeWithoutResult(status -> query.accept(orderRepository));
+        } finally {
+            jdbcTemplate.execute("SET GLOBAL general_log = 'OFF'");
+        }
+
+        return jdbcTemplate.queryForList("SELECT CONVERT(argument USING utf8mb4) FROM mysql.general_log " +
+                        "WHERE command_type = 'Query' ORDER BY event_time", String.class).stream()
+                .filter(statement -> {
+                    String normalized = statement.trim().toLowerCase(Locale.ROOT);
+                    return normalized.startsWith("select") && normalized.contains(" orders ");
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static void consume(Stream<Order> orders) {
+        try (Stream<Order> stream = orders) {
+            stream.forEach(order -> {
+            });
+        }
+    }
+
+    private static String methodName(String queryName) {
+        int index = queryName.indexOf('(');
+        return index < 0 ? queryName : queryName.substring(0, index);
+    }
+
+    /**
+     * 只加载实体和仓库，不加载主启动类上的Feign客户端、缓存等配置
+     */
+    @SpringBootConfiguration
+    @AutoConfigurationPackage(basePackageClasses = {Order.class, OrderRepository.class})
+    static class QueryPlanTestConfiguration {
+    }
+}
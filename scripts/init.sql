@@ -21,6 +21,20 @@ CREATE TABLE IF NOT EXISTS orders (
     INDEX idx_user_id (user_id)
 );
 
+-- 创建ID生成器表（订单ID按号段预分配，以支持JDBC批量插入）
+CREATE TABLE IF NOT EXISTS id_generator (
+    name VARCHAR(255) PRIMARY KEY,
+    next_val BIGINT
+);
+
+-- 创建订单状态汇总表
+CREATE TABLE IF NOT EXISTS order_status_summary (
+    status VARCHAR(50) PRIMARY KEY,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(19,2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
 -- 插入测试数据
 INSERT INTO users (name, email, age) VALUES
 ('张三', 'zhangsan@example.com', 25),
@@ -31,4 +45,10 @@ INSERT INTO orders (user_id, product_name, quantity, price, status) VALUES
 (1, 'Spring Boot 实战', 1, 89.00, 'COMPLETED'),
 (1, 'Docker 入门', 2, 59.00, 'CREATED'),
 (2, 'Kubernetes 实践', 1, 128.00, 'PROCESSING'),
-(3, 'Java 编程思想', 1, 108.00, 'COMPLETED');
\ No newline at end of file
+(3, 'Java 编程思想', 1, 108.00, 'COMPLETED');
+
+INSERT INTO id_generator (name, next_val)
+SELECT 'orders', COALESCE(MAX(id), 0) + 51 FROM orders;
+-- 读写分离的复制延迟检查（SHOW REPLICA STATUS）需要 REPLICATION CLIENT 权限，
+-- 缺少该权限时只读副本始终不可用，读请求全部走主库。授权随binlog复制到由本库搭建的只读副本
+GRANT REPLICATION CLIENT ON *.* TO 'dbuser'@'%';
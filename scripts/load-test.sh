@@ -0,0 +1,37 @@
+#!/bin/bash
+
+# 订单分页详情接口压测，用于对比平台线程与虚拟线程两种模式
+# 用法: ./scripts/load-test.sh [模式标签]
+# 依赖: wrk (https://github.com/wg/wrk)
+
+MODE=${1:-default}
+ORDER_SERVICE_URL=${ORDER_SERVICE_URL:-"http://localhost:8082"}
+DURATION=${DURATION:-60s}
+THREADS=${THREADS:-8}
+CONNECTIONS=${CONNECTIONS:-"1000 5000"}
+RESULT_DIR=${RESULT_DIR:-"load-test-results"}
+
+if ! command -v wrk > /dev/null; then
+    echo "未找到wrk，请先安装"
+    exit 1
+fi
+
+mkdir -p "${RESULT_DIR}"
+
+echo "压测模式: ${MODE}"
+echo "目标地址: ${ORDER_SERVICE_URL}/orders/page/details"
+
+# 预热
+echo "预热..."
+wrk -t${THREADS} -c100 -d15s "${ORDER_SERVICE_URL}/orders/page/details?page=0&size=20" > /dev/null
+
+for c in ${CONNECTIONS}; do
+    RESULT_FILE="${RESULT_DIR}/${MODE}-c${c}.txt"
+    echo "=== 并发连接数: ${c} ==="
+    wrk -t${THREADS} -c${c} -d${DURATION} --latency --timeout 10s \
+        "${ORDER_SERVICE_URL}/orders/page/details?page=0&size=20" | tee "${RESULT_FILE}"
+    echo ""
+done
+
+echo "压测完成，结果保存在 ${RESULT_DIR}/"
+grep -H "Requests/sec\|99%" ${RESULT_DIR}/*.txt
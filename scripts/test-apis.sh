@@ -36,6 +36,9 @@ curl -s "${GATEWAY_URL}/api/users" | jq '.'
 if [ ! -z "$USER_ID" ]; then
     echo "获取用户详情..."
     curl -s "${GATEWAY_URL}/api/users/${USER_ID}" | jq '.'
+
+    echo "批量获取用户..."
+    curl -s "${GATEWAY_URL}/api/users/batch?ids=${USER_ID}" | jq '.'
 fi
 
 echo ""
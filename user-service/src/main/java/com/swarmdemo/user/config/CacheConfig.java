@@ -0,0 +1,85 @@
+package com.swarmdemo.user.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 缓存配置类
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Configuration
+@EnableConfigurationProperties(TwoLevelCacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             TwoLevelCacheProperties properties,
+                                             MeterRegistry meterRegistry) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(properties.getDefaults().getRedisTimeToLive());
+        if ("smile".equalsIgnoreCase(properties.getSerializer())) {
+            // 键前缀带上格式版本，新旧版本实例滚动共存时互不读取对方写入的数据
+            String keyVersion = "smile-v" + VersionedSmileRedisSerializer.FORMAT_VERSION;
+            defaults = defaults
+                    .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                            new VersionedSmileRedisSerializer(getClass().getClassLoader())))
+                    .computePrefixWith(cacheName -> cacheName + "::" + keyVersion + "::");
+        }
+
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        for (Map.Entry<String, TwoLevelCacheProperties.Spec> entry : properties.getCaches().entrySet()) {
+            cacheConfigurations.put(entry.getKey(), defaults.entryTtl(entry.getValue().getRedisTimeToLive()));
+        }
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaults)
+                .withInitialCacheConfigurations(cacheConfigurations)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(redisCacheManager, cacheMessageTemplate(connectionFactory),
+                properties, meterRegistry);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheEvictionListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                        TwoLevelCacheManager cacheManager,
+                                                                        TwoLevelCacheProperties properties) {
+        JdkSerializationRedisSerializer serializer = new JdkSerializationRedisSerializer();
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            Object body = serializer.deserialize(message.getBody());
+            if (body instanceof CacheEvictionMessage) {
+                cacheManager.onEvictionMessage((CacheEvictionMessage) body);
+            }
+        }, new ChannelTopic(properties.getChannel()));
+        return container;
+    }
+
+    private RedisTemplate<String, Object> cacheMessageTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new JdkSerializationRedisSerializer());
+        template.afterPropertiesSet();
+        return template;
+    }
+}
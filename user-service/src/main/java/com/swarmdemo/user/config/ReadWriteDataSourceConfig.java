@@ -0,0 +1,111 @@
+package com.swarmdemo.user.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离数据源配置
+ * <p>
+ * 开启 {@code datasource.replicas.enabled} 后，{@code spring.datasource} 作为主库，
+ * {@code datasource.replicas.urls} 中的每个地址各建一个只读连接池，由 {@link ReplicaRoutingDataSource} 按事务只读标记路由。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteDataSourceConfig.class);
+
+    @Value("${datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${datasource.replicas.max-lag:5s}")
+    private Duration maxLag;
+
+    @Value("${datasource.replicas.maximum-pool-size:20}")
+    private int replicaPoolSize;
+
+    @Value("${datasource.replicas.connection-timeout:2000}")
+    private long replicaConnectionTimeout;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(name);
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(properties.determineUsername());
+            replica.setPassword(properties.determinePassword());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            // 副本不可用时尽快失败并回退到主库
+            replica.setConnectionTimeout(replicaConnectionTimeout);
+            replica.setInitializationFailTimeout(-1);
+            replica.setReadOnly(true);
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, replica));
+
+            Gauge.builder("datasource.replica.lag", replicas.get(replicas.size() - 1),
+                            ReplicaRoutingDataSource.Replica::getLagSeconds)
+                    .description("Replication lag of the read replica in seconds, -1 when unavailable")
+                    .tag("replica", name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+        logger.info("启用读写分离，只读副本数: {}, 最大复制延迟: {}", replicas.size(), maxLag);
+        routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag);
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * 定时检查副本复制延迟，首次检查完成前读请求使用主库
+     */
+    @Scheduled(fixedDelayString = "${datasource.replicas.check-interval:PT5S}")
+    public void checkReplicationLag() {
+        if (routingDataSource != null) {
+            routingDataSource.checkReplicationLag();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.swarmdemo.user.config;
+
+import com.swarmdemo.user.search.UserIndexMessage;
+import com.swarmdemo.user.search.UserSearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+/**
+ * 用户搜索索引配置，订阅其他实例广播的索引变更
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Configuration
+public class UserSearchConfig {
+
+    @Bean
+    public RedisMessageListenerContainer userIndexListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                    UserSearchIndex userSearchIndex,
+                                                                    @Value("${user-search.channel:user:index}") String channel) {
+        JdkSerializationRedisSerializer serializer = new JdkSerializationRedisSerializer();
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            Object body = serializer.deserialize(message.getBody());
+            if (body instanceof UserIndexMessage) {
+                userSearchIndex.onIndexMessage((UserIndexMessage) body);
+            }
+        }, new ChannelTopic(channel));
+        return container;
+    }
+}
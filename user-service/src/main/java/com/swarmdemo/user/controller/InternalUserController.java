@@ -0,0 +1,100 @@
+package com.swarmdemo.user.controller;
+
+import com.google.protobuf.CodedOutputStream;
+import com.swarmdemo.user.entity.User;
+import com.swarmdemo.user.service.UserService;
+import com.swarmdemo.user.vo.UserProto;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 内部用户接口
+ * <p>
+ * 供其他服务调用的protobuf二进制接口，只返回调用方需要的用户字段。
+ * 流式接口按批次查询并逐批写出，调用方可以边接收边处理。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@RestController
+@RequestMapping("/internal/users")
+@Timed(value = "user.internal.requests", description = "Internal binary user API requests")
+public class InternalUserController {
+
+    private static final Logger logger = LoggerFactory.getLogger(InternalUserController.class);
+
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * 获取单个用户
+     */
+    @GetMapping(value = "/{id}", produces = UserProto.MEDIA_TYPE)
+    public ResponseEntity<byte[]> getUserById(@PathVariable Long id) throws IOException {
+        User user = userService.findById(id).orElse(null);
+        if (user == null) {
+            return ResponseEntity.notFound().build();
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        UserProto.write(user, output);
+        output.flush();
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(UserProto.MEDIA_TYPE)).body(bytes.toByteArray());
+    }
+
+    /**
+     * 批量获取用户，响应为连续的长度前缀消息
+     */
+    @GetMapping(value = "/batch", produces = UserProto.MEDIA_TYPE)
+    public ResponseEntity<byte[]> getUsersByIds(@RequestParam List<Long> ids) throws IOException {
+        logger.debug("内部接口批量获取用户，数量: {}", ids.size());
+        List<User> users = userService.findUsersByIds(ids);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(users.size() * 48 + 16);
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        for (User user : users) {
+            UserProto.writeDelimited(user, output);
+        }
+        output.flush();
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(UserProto.MEDIA_TYPE)).body(bytes.toByteArray());
+    }
+
+    /**
+     * 流式批量获取用户，请求体为 UserIds 消息，每查询一批写出并刷新一次
+     */
+    @PostMapping(value = "/stream", consumes = UserProto.MEDIA_TYPE, produces = UserProto.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamUsersByIds(HttpServletRequest request) throws IOException {
+        List<Long> ids = UserProto.readIds(request.getInputStream());
+        logger.info("内部接口流式获取用户，数量: {}", ids.size());
+
+        StreamingResponseBody body = outputStream -> {
+            CodedOutputStream output = CodedOutputStream.newInstance(outputStream);
+            for (int from = 0; from < ids.size(); from += STREAM_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + STREAM_CHUNK_SIZE, ids.size()));
+                for (User user : userService.findUsersByIds(chunk)) {
+                    UserProto.writeDelimited(user, output);
+                }
+                output.flush();
+                outputStream.flush();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(UserProto.MEDIA_TYPE)).body(body);
+    }
+}
@@ -2,6 +2,8 @@ package com.swarmdemo.user.controller;
 
 import com.swarmdemo.user.entity.User;
 import com.swarmdemo.user.service.UserService;
+import com.swarmdemo.user.vo.CursorPage;
+import com.swarmdemo.user.vo.UserSummary;
 import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,13 +58,23 @@ public class UserController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * 批量获取用户
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<List<User>> getUsersByIds(@RequestParam List<Long> ids) {
+        logger.info("批量获取用户，数量: {}", ids.size());
+        List<User> users = userService.findUsersByIds(ids);
+        return ResponseEntity.ok(users);
+    }
+
     /**
      * 获取所有用户
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<UserSummary>> getAllUsers() {
         logger.info("获取所有用户");
-        List<User> users = userService.findAllUsers();
+        List<UserSummary> users = userService.findAllUsers();
         return ResponseEntity.ok(users);
     }
 
@@ -86,6 +98,20 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * 游标分页查询用户
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<User>> getUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        logger.info("游标分页查询用户，游标: {}, 大小: {}", cursor, size);
+        CursorPage<User> users = userService.findUsersByCursor(cursor, size, includeTotal);
+        return ResponseEntity.ok(users);
+    }
+
     /**
      * 搜索用户
      */
@@ -160,12 +186,12 @@ public class UserController {
      * 根据年龄范围查询用户
      */
     @GetMapping("/age-range")
-    public ResponseEntity<List<User>> getUsersByAgeRange(
+    public ResponseEntity<List<UserSummary>> getUsersByAgeRange(
             @RequestParam Integer minAge,
             @RequestParam Integer maxAge) {
         
         logger.info("根据年龄范围查询用户: {} - {}", minAge, maxAge);
-        List<User> users = userService.findUsersByAgeRange(minAge, maxAge);
+        List<UserSummary> users = userService.findUsersByAgeRange(minAge, maxAge);
         return ResponseEntity.ok(users);
     }
 
@@ -0,0 +1,18 @@
+package com.swarmdemo.user.exception;
+
+/**
+ * 业务异常
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public class BusinessException extends RuntimeException {
+    
+    public BusinessException(String message) {
+        super(message);
+    }
+    
+    public BusinessException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
\ No newline at end of file
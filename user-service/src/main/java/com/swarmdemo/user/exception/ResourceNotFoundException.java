@@ -0,0 +1,18 @@
+package com.swarmdemo.user.exception;
+
+/**
+ * 资源未找到异常
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public class ResourceNotFoundException extends RuntimeException {
+    
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+    
+    public ResourceNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
\ No newline at end of file
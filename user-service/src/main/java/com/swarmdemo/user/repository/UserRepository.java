@@ -1,6 +1,7 @@
 package com.swarmdemo.user.repository;
 
 import com.swarmdemo.user.entity.User;
+import com.swarmdemo.user.vo.UserSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +22,18 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * 列表查询的投影：直接构造 {@link UserSummary}，结果不进入持久化上下文
+     */
+    String SUMMARY_SELECT = "SELECT new com.swarmdemo.user.vo.UserSummary(u.id, u.name, u.email, u.age, " +
+                            "u.createdAt, u.updatedAt) FROM User u ";
+
+    /**
+     * 投影查询：获取所有用户
+     */
+    @Query(SUMMARY_SELECT)
+    List<UserSummary> findAllSummaries();
+
     /**
      * 根据邮箱查找用户
      */
@@ -36,15 +50,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByNameContainingIgnoreCase(String name);
 
     /**
-     * 根据年龄范围查询用户
+     * 投影查询：根据年龄范围查询用户
      */
-    List<User> findByAgeBetween(Integer minAge, Integer maxAge);
+    @Query(SUMMARY_SELECT + "WHERE u.age BETWEEN :minAge AND :maxAge")
+    List<UserSummary> findSummariesByAgeBetween(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge);
 
     /**
      * 分页查询用户
      */
     Page<User> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
+    /**
+     * 游标分页：按ID正序获取第一页用户
+     */
+    List<User> findAllByOrderByIdAsc(Pageable pageable);
+
+    /**
+     * 游标分页：获取ID大于游标的用户
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * 根据ID列表分页查询用户
+     */
+    Page<User> findByIdIn(Collection<Long> ids, Pageable pageable);
+
+    /**
+     * 自定义查询：按ID顺序读取构建搜索索引所需的字段（id, name, email）
+     */
+    @Query("SELECT u.id, u.name, u.email FROM User u WHERE u.id > :id ORDER BY u.id")
+    List<Object[]> findIndexEntriesAfter(@Param("id") Long id, Pageable pageable);
+
     /**
      * 自定义查询：根据年龄查询用户数量
      */
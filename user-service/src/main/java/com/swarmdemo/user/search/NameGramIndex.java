@@ -0,0 +1,250 @@
+package com.swarmdemo.user.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户名n-gram倒排索引
+ * <p>
+ * 对归一化后的名称按码点切分出所有单字和二元组，每个gram对应一个按用户ID升序排列的倒排表。
+ * 中文姓名通常只有2~3个字，按姓或名检索时查询本身就是单字或二元组，直接取一个倒排表即可得到精确结果；
+ * 更长的查询取各二元组倒排表的交集作为候选，由调用方对候选按原名称再校验一次。
+ * <p>
+ * 用户ID以int存储以节省内存，出现超出int范围的ID时索引标记为不可用，调用方回退到数据库查询。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public class NameGramIndex {
+
+    private static final int MAX_GRAM_LENGTH = 2;
+
+    private final ConcurrentMap<Long, PostingList> postings = new ConcurrentHashMap<>();
+    private final AtomicLong postingCount = new AtomicLong();
+    private volatile boolean overflow;
+
+    /**
+     * 加入用户名称
+     */
+    public void add(long userId, String name) {
+        if (!checkId(userId)) {
+            return;
+        }
+        for (long gram : grams(NameNormalizer.normalize(name))) {
+            if (postings.computeIfAbsent(gram, key -> new PostingList()).add((int) userId)) {
+                postingCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 移除用户名称，name 为索引时使用的名称
+     */
+    public void remove(long userId, String name) {
+        if (userId > Integer.MAX_VALUE) {
+            return;
+        }
+        for (long gram : grams(NameNormalizer.normalize(name))) {
+            PostingList list = postings.get(gram);
+            if (list != null && list.remove((int) userId)) {
+                postingCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 查找名称包含 query 的用户，查询为空或索引不可用时返回 null
+     */
+    public Matches search(String query) {
+        if (overflow) {
+            return null;
+        }
+        int[] codePoints = NameNormalizer.normalize(query).codePoints().toArray();
+        if (codePoints.length == 0) {
+            return null;
+        }
+        if (codePoints.length <= MAX_GRAM_LENGTH) {
+            PostingList list = postings.get(pack(codePoints, 0, codePoints.length));
+            return new Matches(list != null ? list : PostingList.EMPTY, true);
+        }
+
+        List<PostingList> lists = new ArrayList<>(codePoints.length - 1);
+        for (int i = 0; i + MAX_GRAM_LENGTH <= codePoints.length; i++) {
+            PostingList list = postings.get(pack(codePoints, i, MAX_GRAM_LENGTH));
+            if (list == null) {
+                return new Matches(PostingList.EMPTY, false);
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        // 以最短的倒排表为基准逐个探测其余倒排表
+        int[] candidates = lists.get(0).snapshot();
+        int count = 0;
+        for (int id : candidates) {
+            boolean matched = true;
+            for (int i = 1; i < lists.size() && matched; i++) {
+                matched = lists.get(i).contains(id);
+            }
+            if (matched) {
+                candidates[count++] = id;
+            }
+        }
+        return new Matches(new PostingList(Arrays.copyOf(candidates, count)), false);
+    }
+
+    public long postingCount() {
+        return postingCount.get();
+    }
+
+    public int gramCount() {
+        return postings.size();
+    }
+
+    public boolean isOverflow() {
+        return overflow;
+    }
+
+    private boolean checkId(long userId) {
+        if (userId > Integer.MAX_VALUE) {
+            overflow = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 名称中不重复的单字与二元组，每个gram的码点打包为一个long（每个码点21位）
+     */
+    private static long[] grams(String normalized) {
+        int[] codePoints = normalized.codePoints().toArray();
+        long[] grams = new long[codePoints.length * 2];
+        int count = 0;
+        for (int length = 1; length <= MAX_GRAM_LENGTH; length++) {
+            for (int i = 0; i + length <= codePoints.length; i++) {
+                grams[count++] = pack(codePoints, i, length);
+            }
+        }
+        return Arrays.stream(grams, 0, count).distinct().toArray();
+    }
+
+    private static long pack(int[] codePoints, int from, int length) {
+        long gram = 0;
+        for (int i = from; i < from + length; i++) {
+            gram = (gram << 21) | codePoints[i];
+        }
+        // 最高位区分长度，避免单字与二元组冲突
+        return gram | ((long) length << 60);
+    }
+
+    /**
+     * 查询结果，按用户ID排序；exact 为 false 时结果是候选集，需要按名称校验
+     */
+    public static final class Matches {
+
+        private final PostingList list;
+        private final boolean exact;
+
+        private Matches(PostingList list, boolean exact) {
+            this.list = list;
+            this.exact = exact;
+        }
+
+        public int size() {
+            return list.size();
+        }
+
+        public boolean isExact() {
+            return exact;
+        }
+
+        /**
+         * 按ID升序（或降序）取 [from, to) 范围内的用户ID
+         */
+        public List<Long> ids(int from, int to, boolean descending) {
+            return list.slice(from, to, descending);
+        }
+    }
+
+    /**
+     * 按用户ID升序排列的倒排表
+     * <p>
+     * 用户ID自增，新用户通常追加在末尾；删除和乱序插入需要移动数组元素，但这类操作远少于查询。
+     */
+    static final class PostingList {
+
+        static final PostingList EMPTY = new PostingList(new int[0]);
+
+        private int[] ids;
+        private int size;
+
+        PostingList() {
+            this.ids = new int[2];
+        }
+
+        PostingList(int[] ids) {
+            this.ids = ids;
+            this.size = ids.length;
+        }
+
+        synchronized boolean add(int id) {
+            if (size == 0 || id > ids[size - 1]) {
+                ensureCapacity();
+                ids[size++] = id;
+                return true;
+            }
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return false;
+            }
+            int insertAt = -index - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+            return true;
+        }
+
+        synchronized boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        synchronized boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized int[] snapshot() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        synchronized List<Long> slice(int from, int to, boolean descending) {
+            int end = Math.min(to, size);
+            List<Long> result = new ArrayList<>(Math.max(0, end - from));
+            for (int i = from; i < end; i++) {
+                result.add((long) ids[descending ? size - 1 - i : i]);
+            }
+            return result;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+        }
+    }
+}
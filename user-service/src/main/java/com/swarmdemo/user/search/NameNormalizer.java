@@ -0,0 +1,30 @@
+package com.swarmdemo.user.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 名称与邮箱的归一化
+ * <p>
+ * 与MySQL默认排序规则（utf8mb4_0900_ai_ci）保持相近的比较语义：兼容字符展开、去掉重音符号、不区分大小写，
+ * 全角字母与半角字母、带重音与不带重音的字母视为相同。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public final class NameNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private NameNormalizer() {
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFKD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
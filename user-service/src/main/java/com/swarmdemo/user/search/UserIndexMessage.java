@@ -0,0 +1,86 @@
+package com.swarmdemo.user.search;
+
+import java.io.Serializable;
+
+/**
+ * 用户索引变更广播消息，各实例收到后同步更新本地的名称索引和邮箱布隆过滤器
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public class UserIndexMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String senderId;
+    private Long userId;
+    private String oldName;
+    private String name;
+    private String email;
+
+    public UserIndexMessage() {}
+
+    public UserIndexMessage(String senderId, Long userId, String oldName, String name, String email) {
+        this.senderId = senderId;
+        this.userId = userId;
+        this.oldName = oldName;
+        this.name = name;
+        this.email = email;
+    }
+
+    public String getSenderId() {
+        return senderId;
+    }
+
+    public void setSenderId(String senderId) {
+        this.senderId = senderId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * 变更前的名称，新建用户时为 null
+     */
+    public String getOldName() {
+        return oldName;
+    }
+
+    public void setOldName(String oldName) {
+        this.oldName = oldName;
+    }
+
+    /**
+     * 变更后的名称，删除用户时为 null
+     */
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    @Override
+    public String toString() {
+        return "UserIndexMessage{" +
+                "senderId='" + senderId + '\'' +
+                ", userId=" + userId +
+                ", oldName='" + oldName + '\'' +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
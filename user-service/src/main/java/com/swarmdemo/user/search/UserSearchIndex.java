@@ -0,0 +1,262 @@
+package com.swarmdemo.user.search;
+
+import com.swarmdemo.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 用户搜索索引
+ * <p>
+ * 在内存中维护用户名n-gram索引和邮箱布隆过滤器：启动后从用户表全量构建，用户写操作提交后增量更新，
+ * 并通过Redis频道广播给其他实例。定时全量重建，修正广播丢失造成的偏差。
+ * 首次构建完成前调用方应回退到数据库查询。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user-search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${user-search.channel:user:index}")
+    private String channel;
+
+    @Value("${user-search.email-bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${user-search.email-bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private RedisTemplate<String, Object> messageTemplate;
+
+    private volatile NameGramIndex nameIndex;
+    private volatile EmailBloomFilter emailFilter;
+
+    /**
+     * 重建期间收到的变更，重建完成后重放到新索引上
+     */
+    private List<UserIndexMessage> pendingChanges;
+
+    private Counter bloomNegativeCounter;
+
+    @PostConstruct
+    public void init() {
+        messageTemplate = new RedisTemplate<>();
+        messageTemplate.setConnectionFactory(redisConnectionFactory);
+        messageTemplate.setKeySerializer(new StringRedisSerializer());
+        messageTemplate.setValueSerializer(new JdkSerializationRedisSerializer());
+        messageTemplate.afterPropertiesSet();
+
+        Gauge.builder("user.search.index.postings", this,
+                        index -> index.nameIndex != null ? index.nameIndex.postingCount() : 0)
+                .description("Entries in the user name n-gram posting lists")
+                .register(meterRegistry);
+        Gauge.builder("user.search.index.grams", this,
+                        index -> index.nameIndex != null ? index.nameIndex.gramCount() : 0)
+                .description("Distinct n-grams in the user name index")
+                .register(meterRegistry);
+        Gauge.builder("user.search.email-bloom.bits", this,
+                        index -> index.emailFilter != null ? index.emailFilter.bitSize() : 0)
+                .description("Size of the email bloom filter in bits")
+                .register(meterRegistry);
+        bloomNegativeCounter = Counter.builder("user.search.email-bloom.negatives")
+                .description("Email existence checks answered by the bloom filter without a database query")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("构建用户搜索索引失败，搜索回退到数据库: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从用户表全量重建索引
+     * <p>
+     * 在读写事务中执行，启用读写分离时也从主库读取，避免副本延迟使重建前已提交的变更丢失。
+     */
+    @Scheduled(fixedDelayString = "${user-search.rebuild-interval:PT6H}",
+               initialDelayString = "${user-search.rebuild-interval:PT6H}")
+    @Transactional
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        NameGramIndex newNameIndex = new NameGramIndex();
+        EmailBloomFilter newEmailFilter = new EmailBloomFilter(
+                Math.max(expectedInsertions, userRepository.count() * 2), falsePositiveRate);
+        long lastId = 0;
+        int total = 0;
+        try {
+            List<Object[]> rows;
+            do {
+                rows = userRepository.findIndexEntriesAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    newNameIndex.add(lastId, (String) row[1]);
+                    newEmailFilter.put((String) row[2]);
+                }
+                total += rows.size();
+            } while (rows.size() == REBUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingChanges = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            for (UserIndexMessage change : pendingChanges) {
+                apply(newNameIndex, newEmailFilter, change);
+            }
+            pendingChanges = null;
+            nameIndex = newNameIndex;
+            emailFilter = newEmailFilter;
+        }
+        logger.info("用户搜索索引重建完成，用户数: {}, gram数: {}, 倒排项: {}, 布隆过滤器: {} bits / {} hashes, 耗时: {}ms",
+                total, newNameIndex.gramCount(), newNameIndex.postingCount(),
+                newEmailFilter.bitSize(), newEmailFilter.hashFunctions(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 按名称查找用户ID，索引未就绪时返回 null
+     */
+    public NameGramIndex.Matches findByName(String name) {
+        NameGramIndex index = nameIndex;
+        return index != null ? index.search(name) : null;
+    }
+
+    /**
+     * 邮箱是否可能存在，返回 false 时邮箱一定不存在
+     */
+    public boolean emailMightExist(String email) {
+        EmailBloomFilter filter = emailFilter;
+        if (filter == null || filter.mightContain(email)) {
+            return true;
+        }
+        bloomNegativeCounter.increment();
+        return false;
+    }
+
+    /**
+     * 记录用户变更，事务提交后更新本地索引并广播
+     *
+     * @param oldName 变更前的名称，新建时为 null
+     * @param name    变更后的名称，删除时为 null
+     * @param email   变更后的邮箱，删除时为 null
+     */
+    public void recordChanged(Long userId, String oldName, String name, String email) {
+        if (!enabled) {
+            return;
+        }
+        UserIndexMessage change = new UserIndexMessage(instanceId, userId, oldName, name, email);
+        afterCommit(() -> {
+            applyLocal(change);
+            publish(change);
+        });
+    }
+
+    /**
+     * 处理其他实例广播的变更
+     */
+    public void onIndexMessage(UserIndexMessage message) {
+        if (!enabled || instanceId.equals(message.getSenderId())) {
+            return;
+        }
+        logger.debug("收到用户索引变更广播: {}", message);
+        applyLocal(message);
+    }
+
+    private synchronized void applyLocal(UserIndexMessage change) {
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+        if (nameIndex != null) {
+            apply(nameIndex, emailFilter, change);
+        }
+    }
+
+    private void apply(NameGramIndex index, EmailBloomFilter filter, UserIndexMessage change) {
+        if (change.getOldName() != null) {
+            index.remove(change.getUserId(), change.getOldName());
+        }
+        if (change.getName() != null) {
+            index.add(change.getUserId(), change.getName());
+        }
+        if (change.getEmail() != null) {
+            filter.put(change.getEmail());
+        }
+    }
+
+    private void publish(UserIndexMessage change) {
+        try {
+            messageTemplate.convertAndSend(channel, change);
+        } catch (Exception e) {
+            logger.warn("广播用户索引变更失败，用户ID: {}, 异常: {}", change.getUserId(), e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
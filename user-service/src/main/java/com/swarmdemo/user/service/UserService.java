@@ -1,9 +1,12 @@
 package com.swarmdemo.user.service;
 
 import com.swarmdemo.user.entity.User;
+import com.swarmdemo.user.vo.CursorPage;
+import com.swarmdemo.user.vo.UserSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,16 +28,26 @@ public interface UserService {
      */
     Optional<User> findById(Long id);
 
+    /**
+     * 根据ID列表批量查找用户
+     */
+    List<User> findUsersByIds(List<Long> ids);
+
     /**
      * 获取所有用户
      */
-    List<User> findAllUsers();
+    List<UserSummary> findAllUsers();
 
     /**
      * 分页查询用户
      */
     Page<User> findUsers(Pageable pageable);
 
+    /**
+     * 游标分页查询用户
+     */
+    CursorPage<User> findUsersByCursor(String cursor, int size, boolean includeTotal);
+
     /**
      * 根据名字搜索用户
      */
@@ -63,7 +76,7 @@ public interface UserService {
     /**
      * 根据年龄范围查询用户
      */
-    List<User> findUsersByAgeRange(Integer minAge, Integer maxAge);
+    List<UserSummary> findUsersByAgeRange(Integer minAge, Integer maxAge);
 
     /**
      * 获取用户统计信息
@@ -73,11 +86,16 @@ public interface UserService {
     /**
      * 用户统计信息内部类
      */
-    class UserStatistics {
+    class UserStatistics implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
         private Long totalUsers;
         private Long adultUsers;
         private List<User> oldestUsers;
 
+        public UserStatistics() {}
+
         public UserStatistics(Long totalUsers, Long adultUsers, List<User> oldestUsers) {
             this.totalUsers = totalUsers;
             this.adultUsers = adultUsers;
@@ -4,22 +4,40 @@ import com.swarmdemo.user.entity.User;
 import com.swarmdemo.user.exception.ResourceNotFoundException;
 import com.swarmdemo.user.exception.DuplicateResourceException;
 import com.swarmdemo.user.repository.UserRepository;
+import com.swarmdemo.user.search.NameGramIndex;
+import com.swarmdemo.user.search.NameNormalizer;
+import com.swarmdemo.user.search.UserSearchIndex;
 import com.swarmdemo.user.service.UserService;
+import com.swarmdemo.user.vo.CursorPage;
+import com.swarmdemo.user.vo.UserSummary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 用户服务实现类
+ * <p>
+ * 查询方法标记为只读事务，启用读写分离时路由到只读副本；按ID读取和邮箱唯一性检查常紧跟在写入之后，仍在主库执行，保证读到自己的写入。
+ * 只读事务中Hibernate会话使用MANUAL刷新模式且加载的实体不保留快照；不分页的列表查询直接返回 {@link UserSummary} 投影。
  * 
  * @author islanderrrrr
  * @since 2025-08-25
@@ -30,19 +48,40 @@ public class UserServiceImpl implements UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
 
+    /**
+     * 搜索结果需要逐个按名称校验时，候选数超过该值则回退到数据库查询
+     */
+    private static final int MAX_VERIFY_CANDIDATES = 10000;
+
+    /**
+     * 按ID列表查询时每批的ID数量
+     */
+    private static final int ID_BATCH_SIZE = 1000;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
     @Override
+    @CacheEvict(value = "usersList", allEntries = true)
     public User createUser(User user) {
         logger.info("创建用户: {}", user.getName());
         
         // 检查邮箱是否已存在
-        if (userRepository.existsByEmail(user.getEmail())) {
+        if (emailExists(user.getEmail())) {
             throw new DuplicateResourceException("邮箱已存在: " + user.getEmail());
         }
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // 布隆过滤器与数据库排序规则的等价判断不完全一致时，由唯一约束兜底
+            throw new DuplicateResourceException("邮箱已存在: " + user.getEmail());
+        }
+        userSearchIndex.recordChanged(savedUser.getId(), null, savedUser.getName(), savedUser.getEmail());
         logger.info("用户创建成功，ID: {}", savedUser.getId());
         return savedUser;
     }
@@ -55,32 +94,122 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Cacheable(value = "usersList", key = "'all'")
-    public List<User> findAllUsers() {
+    public List<User> findUsersByIds(List<Long> ids) {
+        logger.info("批量查找用户，数量: {}", ids.size());
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return userRepository.findAllById(new LinkedHashSet<>(ids));
+    }
+
+    @Override
+    @Cacheable(value = "usersList", key = "'summaries'")
+    @Transactional(readOnly = true)
+    public List<UserSummary> findAllUsers() {
         logger.info("获取所有用户");
-        return userRepository.findAll();
+        return userRepository.findAllSummaries();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<User> findUsers(Pageable pageable) {
         logger.info("分页查询用户，页码: {}, 大小: {}", pageable.getPageNumber(), pageable.getPageSize());
         return userRepository.findAll(pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<User> findUsersByCursor(String cursor, int size, boolean includeTotal) {
+        logger.info("游标分页查询用户，游标: {}, 大小: {}", cursor, size);
+        Long cursorId = CursorPage.decodeCursor(cursor);
+        int pageSize = CursorPage.normalizeSize(size);
+        Pageable limit = CursorPage.limitOf(pageSize);
+
+        List<User> users = cursorId == null
+                ? userRepository.findAllByOrderByIdAsc(limit)
+                : userRepository.findByIdGreaterThanOrderByIdAsc(cursorId, limit);
+        return CursorPage.of(users, pageSize, User::getId, includeTotal ? userRepository.count() : null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<User> searchUsersByName(String name) {
         logger.info("根据名字搜索用户: {}", name);
-        return userRepository.findByNameContainingIgnoreCase(name);
+        NameGramIndex.Matches matches = userSearchIndex.findByName(name);
+        if (matches == null || (!matches.isExact() && matches.size() > MAX_VERIFY_CANDIDATES)) {
+            return userRepository.findByNameContainingIgnoreCase(name);
+        }
+        return loadMatchingUsers(matches.ids(0, matches.size(), false), name);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<User> searchUsers(String name, Pageable pageable) {
         logger.info("分页搜索用户，名字: {}, 页码: {}, 大小: {}", name, pageable.getPageNumber(), pageable.getPageSize());
-        return userRepository.findByNameContainingIgnoreCase(name, pageable);
+        NameGramIndex.Matches matches = userSearchIndex.findByName(name);
+        if (matches == null || (!matches.isExact() && matches.size() > MAX_VERIFY_CANDIDATES)) {
+            return userRepository.findByNameContainingIgnoreCase(name, pageable);
+        }
+
+        Sort sort = pageable.getSort();
+        Sort.Order idOrder = sort.getOrderFor("id");
+        boolean sortById = sort.isUnsorted() || (idOrder != null && sort.stream().count() == 1);
+        boolean descending = idOrder != null && idOrder.isDescending();
+        int from = (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE);
+        int to = from + pageable.getPageSize();
+
+        // 精确结果按ID排序时直接从倒排表截取当前页
+        if (matches.isExact() && sortById) {
+            return new PageImpl<>(loadMatchingUsers(matches.ids(from, to, descending), name),
+                    pageable, matches.size());
+        }
+
+        List<Long> ids = matches.isExact()
+                ? matches.ids(0, matches.size(), false)
+                : loadMatchingUsers(matches.ids(0, matches.size(), false), name).stream()
+                        .map(User::getId)
+                        .collect(Collectors.toList());
+        if (sortById) {
+            if (descending) {
+                Collections.reverse(ids);
+            }
+            List<Long> pageIds = from < ids.size() ? ids.subList(from, Math.min(to, ids.size())) : Collections.emptyList();
+            return new PageImpl<>(loadMatchingUsers(pageIds, name), pageable, ids.size());
+        }
+        if (ids.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        // 按其他字段排序时由数据库对命中的ID排序分页，命中过多则回退到模糊查询
+        return ids.size() <= ID_BATCH_SIZE
+                ? userRepository.findByIdIn(ids, pageable)
+                : userRepository.findByNameContainingIgnoreCase(name, pageable);
+    }
+
+    /**
+     * 按ID顺序加载用户，并丢弃名称已不包含查询词的用户（索引候选或索引更新前的旧数据）
+     */
+    private List<User> loadMatchingUsers(List<Long> ids, String name) {
+        String query = NameNormalizer.normalize(name);
+        List<User> users = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size()));
+            Map<Long, User> loaded = userRepository.findAllById(batch).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            for (Long id : batch) {
+                User user = loaded.get(id);
+                if (user != null && NameNormalizer.normalize(user.getName()).contains(query)) {
+                    users.add(user);
+                }
+            }
+        }
+        return users;
     }
 
     @Override
-    @CacheEvict(value = {"users", "usersList"}, key = "#id")
+    @Caching(evict = {
+            @CacheEvict(value = "users", key = "#id"),
+            @CacheEvict(value = "usersList", allEntries = true)
+    })
     public User updateUser(Long id, User user) {
         logger.info("更新用户，ID: {}", id);
         
@@ -89,45 +218,53 @@ public class UserServiceImpl implements UserService {
 
         // 检查邮箱是否被其他用户使用
         if (!existingUser.getEmail().equals(user.getEmail()) && 
-            userRepository.existsByEmail(user.getEmail())) {
+            emailExists(user.getEmail())) {
             throw new DuplicateResourceException("邮箱已被其他用户使用: " + user.getEmail());
         }
 
+        String oldName = existingUser.getName();
         existingUser.setName(user.getName());
         existingUser.setEmail(user.getEmail());
         existingUser.setAge(user.getAge());
 
         User updatedUser = userRepository.save(existingUser);
+        userSearchIndex.recordChanged(id, oldName, updatedUser.getName(), updatedUser.getEmail());
         logger.info("用户更新成功，ID: {}", updatedUser.getId());
         return updatedUser;
     }
 
     @Override
-    @CacheEvict(value = {"users", "usersList"}, key = "#id")
+    @Caching(evict = {
+            @CacheEvict(value = "users", key = "#id"),
+            @CacheEvict(value = "usersList", allEntries = true)
+    })
     public void deleteUser(Long id) {
         logger.info("删除用户，ID: {}", id);
         
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("用户不存在，ID: " + id);
-        }
+        User existingUser = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("用户不存在，ID: " + id));
 
-        userRepository.deleteById(id);
+        userRepository.delete(existingUser);
+        userSearchIndex.recordChanged(id, existingUser.getName(), null, null);
         logger.info("用户删除成功，ID: {}", id);
     }
 
     @Override
     public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+        // 布隆过滤器判定不存在时无需查询数据库
+        return userSearchIndex.emailMightExist(email) && userRepository.existsByEmail(email);
     }
 
     @Override
-    public List<User> findUsersByAgeRange(Integer minAge, Integer maxAge) {
+    @Transactional(readOnly = true)
+    public List<UserSummary> findUsersByAgeRange(Integer minAge, Integer maxAge) {
         logger.info("根据年龄范围查询用户: {} - {}", minAge, maxAge);
-        return userRepository.findByAgeBetween(minAge, maxAge);
+        return userRepository.findSummariesByAgeBetween(minAge, maxAge);
     }
 
     @Override
     @Cacheable(value = "userStatistics", key = "'stats'")
+    @Transactional(readOnly = true)
     public UserStatistics getUserStatistics() {
         logger.info("获取用户统计信息");
         
@@ -0,0 +1,100 @@
+package com.swarmdemo.user.vo;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.swarmdemo.user.entity.User;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 内部二进制接口的protobuf编解码
+ * <p>
+ * 消息格式见 {@code proto/user.proto}。消息只有几个字段，直接使用protobuf运行时按字段编码，不依赖代码生成。
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public final class UserProto {
+
+    public static final String MEDIA_TYPE = "application/x-protobuf";
+
+    private static final int USER_ID = 1;
+    private static final int USER_NAME = 2;
+    private static final int USER_EMAIL = 3;
+    private static final int USER_AGE = 4;
+
+    private static final int IDS = 1;
+
+    private UserProto() {
+    }
+
+    /**
+     * 写出单个 User 消息
+     */
+    public static void write(User user, CodedOutputStream output) throws IOException {
+        if (user.getId() != null) {
+            output.writeInt64(USER_ID, user.getId());
+        }
+        if (user.getName() != null) {
+            output.writeString(USER_NAME, user.getName());
+        }
+        if (user.getEmail() != null) {
+            output.writeString(USER_EMAIL, user.getEmail());
+        }
+        if (user.getAge() != null) {
+            output.writeInt32(USER_AGE, user.getAge());
+        }
+    }
+
+    /**
+     * 写出带varint长度前缀的 User 消息
+     */
+    public static void writeDelimited(User user, CodedOutputStream output) throws IOException {
+        output.writeUInt32NoTag(serializedSize(user));
+        write(user, output);
+    }
+
+    /**
+     * 读取 UserIds 消息，兼容打包和未打包两种编码
+     */
+    public static List<Long> readIds(InputStream inputStream) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(inputStream);
+        List<Long> ids = new ArrayList<>();
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            if (WireFormat.getTagFieldNumber(tag) != IDS) {
+                input.skipField(tag);
+            } else if (WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                int limit = input.pushLimit(input.readRawVarint32());
+                while (input.getBytesUntilLimit() > 0) {
+                    ids.add(input.readInt64());
+                }
+                input.popLimit(limit);
+            } else {
+                ids.add(input.readInt64());
+            }
+        }
+        return ids;
+    }
+
+    private static int serializedSize(User user) {
+        int size = 0;
+        if (user.getId() != null) {
+            size += CodedOutputStream.computeInt64Size(USER_ID, user.getId());
+        }
+        if (user.getName() != null) {
+            size += CodedOutputStream.computeStringSize(USER_NAME, user.getName());
+        }
+        if (user.getEmail() != null) {
+            size += CodedOutputStream.computeStringSize(USER_EMAIL, user.getEmail());
+        }
+        if (user.getAge() != null) {
+            size += CodedOutputStream.computeInt32Size(USER_AGE, user.getAge());
+        }
+        return size;
+    }
+}
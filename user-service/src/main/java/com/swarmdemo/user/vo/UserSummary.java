@@ -0,0 +1,94 @@
+package com.swarmdemo.user.vo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.swarmdemo.user.entity.User;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 用户列表项
+ * <p>
+ * 列表查询直接由JPQL构造该对象，不加载受管实体，也就没有持久化上下文中的快照和脏检查；
+ * JSON字段与 {@link User} 保持一致。
+ * 
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+public class UserSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private String name;
+    private String email;
+    private Integer age;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    // 构造方法
+    public UserSummary() {}
+
+    public UserSummary(Long id, String name, String email, Integer age,
+                       LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.age = age;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getter和Setter方法
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
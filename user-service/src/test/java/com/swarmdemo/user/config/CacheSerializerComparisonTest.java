@@ -0,0 +1,128 @@
+package com.swarmdemo.user.config;
+
+import com.swarmdemo.user.entity.User;
+import com.swarmdemo.user.service.UserService;
+import com.swarmdemo.user.vo.UserSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Redis缓存序列化对比
+ * <p>
+ * 对用户服务缓存的值类型分别使用 {@link VersionedSmileRedisSerializer} 和 {@link JdkSerializationRedisSerializer}
+ * 编解码，输出每个条目的字节数以及编码、解码每次耗时（纳秒）。只测序列化本身，不含Redis往返。运行方式：
+ * {@code mvn -B test -Dtest=CacheSerializerComparisonTest}
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+class CacheSerializerComparisonTest {
+
+    private static final int WARM_UP_ITERATIONS = 20_000;
+    private static final int ITERATIONS = 50_000;
+    private static final int SUMMARIES_PER_LIST = 100;
+
+    private static long sink;
+
+    private final RedisSerializer<Object> smile = new VersionedSmileRedisSerializer(getClass().getClassLoader());
+    private final RedisSerializer<Object> jdk = new JdkSerializationRedisSerializer(getClass().getClassLoader());
+
+    @Test
+    void timestampsKeepFullPrecision() {
+        User user = user(1L);
+
+        User cached = (User) smile.deserialize(smile.serialize(user));
+
+        assertThat(cached).usingRecursiveComparison().isEqualTo(user);
+        assertThat(cached.getCreatedAt().getNano()).isEqualTo(user.getCreatedAt().getNano());
+    }
+
+    @Test
+    void unknownFormatIsCacheMiss() {
+        assertThat(smile.deserialize(jdk.serialize(user(1L)))).isNull();
+    }
+
+    @Test
+    void compareWithJdkSerialization() {
+        System.out.printf("%-18s %-6s %8s %12s %12s%n", "type", "format", "bytes", "encode ns", "decode ns");
+        compare("User", user(1L), ITERATIONS);
+        compare("UserStatistics", new UserService.UserStatistics(1_200L, 800L,
+                List.of(user(1L), user(2L), user(3L))), ITERATIONS);
+        compare("List<UserSummary>", summaries(), ITERATIONS / SUMMARIES_PER_LIST * 10);
+    }
+
+    private void compare(String name, Object value, int iterations) {
+        Result smileResult = measure(smile, value, iterations);
+        Result jdkResult = measure(jdk, value, iterations);
+        print(name, "smile", smileResult);
+        print(name, "jdk", jdkResult);
+        assertThat(smileResult.bytes).isLessThan(jdkResult.bytes);
+    }
+
+    private static Result measure(RedisSerializer<Object> serializer, Object value, int iterations) {
+        byte[] bytes = serializer.serialize(value);
+        assertThat(serializer.deserialize(bytes)).usingRecursiveComparison().isEqualTo(value);
+
+        for (int i = 0; i < WARM_UP_ITERATIONS * iterations / ITERATIONS; i++) {
+            sink += serializer.serialize(value).length;
+            sink += serializer.deserialize(bytes).hashCode();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += serializer.serialize(value).length;
+        }
+        long encodeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += serializer.deserialize(bytes).hashCode();
+        }
+        long decodeNanos = System.nanoTime() - start;
+
+        return new Result(bytes.length, (double) encodeNanos / iterations, (double) decodeNanos / iterations);
+    }
+
+    private static void print(String name, String format, Result result) {
+        System.out.printf("%-18s %-6s %8d %12.0f %12.0f%n",
+                name, format, result.bytes, result.encodeNanos, result.decodeNanos);
+    }
+
+    private static User user(Long id) {
+        User user = new User("用户" + id, "user" + id + "@example.com", 18 + (int) (id % 50));
+        user.setId(id);
+        user.setCreatedAt(LocalDateTime.of(2025, 8, 25, 12, 0, 0, 123_456_789));
+        user.setUpdatedAt(LocalDateTime.of(2025, 8, 25, 12, 30, 0, 987_654_000));
+        return user;
+    }
+
+    private static List<UserSummary> summaries() {
+        List<UserSummary> summaries = new ArrayList<>(SUMMARIES_PER_LIST);
+        for (long id = 1; id <= SUMMARIES_PER_LIST; id++) {
+            User user = user(id);
+            summaries.add(new UserSummary(user.getId(), user.getName(), user.getEmail(), user.getAge(),
+                    user.getCreatedAt(), user.getUpdatedAt()));
+        }
+        return summaries;
+    }
+
+    private static final class Result {
+
+        private final int bytes;
+        private final double encodeNanos;
+        private final double decodeNanos;
+
+        private Result(int bytes, double encodeNanos, double decodeNanos) {
+            this.bytes = bytes;
+            this.encodeNanos = encodeNanos;
+            this.decodeNanos = decodeNanos;
+        }
+    }
+}
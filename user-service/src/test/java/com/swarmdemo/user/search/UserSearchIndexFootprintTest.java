@@ -0,0 +1,88 @@
+package com.swarmdemo.user.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.Reference;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 用户搜索索引内存占用
+ * <p>
+ * 分别向 {@link NameGramIndex} 写入两批数量不同的合成用户，以GC后的堆占用差值计算索引大小，
+ * 按两点线性拟合出固定开销和每用户开销，外推到1000万用户；邮箱布隆过滤器按 {@link UserSearchIndex} 重建时的参数
+ * （预期插入数为用户数的2倍、误判率0.01）构造后读取位数。
+ * 姓取自常见姓氏，名字用字分别从CJK基本区前3500个字和前500个字中均匀抽取：不同gram的数量决定了大部分开销，
+ * 用字越分散gram越多。gram数随用户数增长逐渐放缓，线性外推的结果偏高。运行方式：
+ * {@code mvn -B test -Dtest=UserSearchIndexFootprintTest}
+ *
+ * @author islanderrrrr
+ * @since 2025-08-25
+ */
+class UserSearchIndexFootprintTest {
+
+    private static final String SURNAMES = "王李张刘陈杨黄赵吴周徐孙马朱胡郭何高林罗郑梁谢宋唐许韩冯邓曹彭曾肖田董袁潘于蒋蔡余杜叶程苏魏吕丁任沈"
+            + "姚卢姜崔钟谭陆汪范金石廖贾夏韦付方白邹孟熊秦邱江尹薛闫段雷侯龙史陶黎贺顾毛郝龚邵万钱严覃武戴莫孔向汤";
+    private static final int[] GIVEN_NAME_CHARACTERS = {3500, 500};
+
+    private static final int SMALL = 250_000;
+    private static final int LARGE = 1_000_000;
+    private static final long TARGET = 10_000_000;
+
+    @Test
+    void estimateFootprintForTenMillionUsers() {
+        System.out.printf("%-6s %10s %10s %12s %10s %14s%n",
+                "chars", "users", "grams", "postings", "MB", "bytes per user");
+        for (int characters : GIVEN_NAME_CHARACTERS) {
+            long small = nameIndexBytes(SMALL, characters);
+            long large = nameIndexBytes(LARGE, characters);
+            double perUser = (double) (large - small) / (LARGE - SMALL);
+            double fixed = small - perUser * SMALL;
+            System.out.printf("%-6d %10d %10s %12s %10.0f %14.1f%n", characters, TARGET, "-", "-",
+                    (fixed + perUser * TARGET) / 1e6, perUser);
+            assertThat(large).isGreaterThan(small);
+        }
+
+        EmailBloomFilter bloom = new EmailBloomFilter(TARGET * 2, 0.01);
+        System.out.printf("email bloom for %d users: %.0f MB, %d hashes%n",
+                TARGET, bloom.bitSize() / 8 / 1e6, bloom.hashFunctions());
+    }
+
+    /**
+     * 写入 users 个合成用户后索引占用的堆字节数
+     */
+    private static long nameIndexBytes(int users, int characters) {
+        long before = usedHeap();
+        NameGramIndex index = new NameGramIndex();
+        Random random = new Random(users);
+        for (int id = 1; id <= users; id++) {
+            index.add(id, name(random, characters));
+        }
+        long bytes = usedHeap() - before;
+        System.out.printf("%-6d %10d %10d %12d %10.1f %14s%n",
+                characters, users, index.gramCount(), index.postingCount(), bytes / 1e6, "");
+        Reference.reachabilityFence(index);
+        return bytes;
+    }
+
+    private static String name(Random random, int characters) {
+        StringBuilder name = new StringBuilder(3);
+        name.append(SURNAMES.charAt(random.nextInt(SURNAMES.length())));
+        int givenLength = random.nextInt(10) < 7 ? 2 : 1;
+        for (int i = 0; i < givenLength; i++) {
+            name.append((char) (0x4E00 + random.nextInt(characters)));
+        }
+        return name.toString();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}